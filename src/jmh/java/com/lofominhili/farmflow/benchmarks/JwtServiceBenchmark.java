@@ -0,0 +1,85 @@
+package com.lofominhili.farmflow.benchmarks;
+
+import com.lofominhili.farmflow.entities.UserEntity;
+import com.lofominhili.farmflow.exceptions.TokenValidationException;
+import com.lofominhili.farmflow.services.JwtService.JwtServiceImpl;
+import com.lofominhili.farmflow.services.JwtService.VerifiedToken;
+import com.lofominhili.farmflow.utils.Role;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks issuing and verifying tokens with {@link JwtServiceImpl}.
+ * {@code verifyCached} verifies the same token over and over, as consecutive requests of one client do,
+ * while {@code verifyUncached} rotates over many tokens with a verified-token cache of a single entry,
+ * so every call parses the token and checks its signature.
+ *
+ * @author daniel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final int TOKENS = 4096;
+
+    @State(Scope.Benchmark)
+    public static class Tokens {
+        JwtServiceImpl cachingService;
+        JwtServiceImpl nonCachingService;
+        UserEntity user;
+        String token;
+        String[] tokens;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            byte[] key = new byte[64];
+            new Random(42).nextBytes(key);
+            String secretKey = Base64.getEncoder().encodeToString(key);
+            cachingService = createService(secretKey, 10000);
+            nonCachingService = createService(secretKey, 1);
+            user = new UserEntity();
+            user.setId(1L);
+            user.setEmail("worker@farm.com");
+            user.setRole(Role.USER);
+            user.setFired(false);
+            token = cachingService.generateToken(user);
+            tokens = new String[TOKENS];
+            for (int i = 0; i < TOKENS; i++) {
+                tokens[i] = cachingService.generateToken(user);
+            }
+        }
+
+        private static JwtServiceImpl createService(String secretKey, int cacheSize) {
+            JwtServiceImpl service = new JwtServiceImpl();
+            ReflectionTestUtils.setField(service, "secretKey", secretKey);
+            ReflectionTestUtils.setField(service, "tokenLifetime", (int) TimeUnit.HOURS.toMillis(1));
+            ReflectionTestUtils.setField(service, "verifiedTokenCacheSize", cacheSize);
+            service.init();
+            return service;
+        }
+    }
+
+    @Benchmark
+    public String generate(Tokens state) {
+        return state.cachingService.generateToken(state.user);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached(Tokens state) throws TokenValidationException {
+        return state.cachingService.verify(state.token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyUncached(Tokens state) throws TokenValidationException {
+        state.next = (state.next + 1) % TOKENS;
+        return state.nonCachingService.verify(state.tokens[state.next]);
+    }
+}
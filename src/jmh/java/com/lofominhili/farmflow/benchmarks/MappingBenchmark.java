@@ -0,0 +1,102 @@
+package com.lofominhili.farmflow.benchmarks;
+
+import com.lofominhili.farmflow.dto.EntityDTO.HarvestRateDTO;
+import com.lofominhili.farmflow.dto.EntityDTO.ProductDTO;
+import com.lofominhili.farmflow.dto.EntityDTO.UserDTO;
+import com.lofominhili.farmflow.entities.HarvestRateEntity;
+import com.lofominhili.farmflow.entities.ProductEntity;
+import com.lofominhili.farmflow.entities.UserEntity;
+import com.lofominhili.farmflow.mappers.HarvestRateMapper;
+import com.lofominhili.farmflow.mappers.HarvestRateMapperImpl;
+import com.lofominhili.farmflow.mappers.ProductMapper;
+import com.lofominhili.farmflow.mappers.ProductMapperImpl;
+import com.lofominhili.farmflow.mappers.UserMapper;
+import com.lofominhili.farmflow.mappers.UserMapperImpl;
+import com.lofominhili.farmflow.utils.Measure;
+import com.lofominhili.farmflow.utils.Role;
+import com.lofominhili.farmflow.utils.Validation.MeasureValidValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the MapStruct mappers between DTOs and entities and the {@link MeasureValidValidator}.
+ *
+ * @author daniel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private final ProductMapper productMapper = new ProductMapperImpl();
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final HarvestRateMapper harvestRateMapper = new HarvestRateMapperImpl();
+    private final MeasureValidValidator measureValidValidator = new MeasureValidValidator();
+
+    private ProductDTO productDTO;
+    private ProductEntity productEntity;
+    private UserDTO userDTO;
+    private UserEntity userEntity;
+    private HarvestRateEntity harvestRateEntity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productDTO = new ProductDTO("Tomato", "kilogram", 12);
+        productEntity = productMapper.toEntity(productDTO);
+        productEntity.setId(1L);
+        productEntity.setDate(LocalDate.of(2024, 1, 1));
+        userDTO = new UserDTO("Worker", "Workerov", "Workerovich", "password", "worker@farm.com");
+        userEntity = userMapper.toEntity(userDTO);
+        userEntity.setId(1L);
+        userEntity.setRole(Role.USER);
+        harvestRateEntity = new HarvestRateEntity();
+        harvestRateEntity.setId(1L);
+        harvestRateEntity.setProduct(productEntity);
+        harvestRateEntity.setAmount(500);
+    }
+
+    @Benchmark
+    public ProductEntity productToEntity() {
+        return productMapper.toEntity(productDTO);
+    }
+
+    @Benchmark
+    public ProductDTO productToDto() {
+        return productMapper.toDto(productEntity);
+    }
+
+    @Benchmark
+    public UserEntity userToEntity() {
+        return userMapper.toEntity(userDTO);
+    }
+
+    @Benchmark
+    public UserDTO userToDto() {
+        return userMapper.toDto(userEntity);
+    }
+
+    @Benchmark
+    public HarvestRateDTO harvestRateToDto() {
+        return harvestRateMapper.toDto(harvestRateEntity);
+    }
+
+    @Benchmark
+    public boolean validateValidMeasure() {
+        return measureValidValidator.isValid("liter", null);
+    }
+
+    @Benchmark
+    public boolean validateInvalidMeasure() {
+        return measureValidValidator.isValid("gallon", null);
+    }
+
+    @Benchmark
+    public Measure parseMeasure() {
+        return productMapper.toUpperCase("piece");
+    }
+}
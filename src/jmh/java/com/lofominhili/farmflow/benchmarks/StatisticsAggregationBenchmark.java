@@ -0,0 +1,131 @@
+package com.lofominhili.farmflow.benchmarks;
+
+import com.lofominhili.farmflow.entities.ProductEntity;
+import com.lofominhili.farmflow.entities.RecordDailyRollupId;
+import com.lofominhili.farmflow.entities.RecordEntity;
+import com.lofominhili.farmflow.entities.UserEntity;
+import com.lofominhili.farmflow.utils.Measure;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks aggregating collection records into per-product statistics over synthetic {@link RecordEntity} lists.
+ * {@code perProductScan} is the original in-memory algorithm of the statistics service, which rescans the records
+ * for every product, {@code singlePassGrouping} folds the records in one pass like the SQL {@code GROUP BY} does,
+ * and {@code dailyRollupFold} first folds the records into daily rollups and then sums the rollups,
+ * which is the work split between collecting and the statistics queries now.
+ *
+ * @author daniel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StatisticsAggregationBenchmark {
+
+    private static final int PRODUCTS = 20;
+    private static final int USERS = 200;
+    private static final int DAYS = 365;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    private int records;
+
+    private List<RecordEntity> recordEntities;
+    private LocalDate begin;
+    private LocalDate end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate firstDay = LocalDate.of(2024, 1, 1);
+        List<ProductEntity> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            ProductEntity product = new ProductEntity();
+            product.setId((long) i);
+            product.setName("product-" + i);
+            product.setMeasure(Measure.values()[i % Measure.values().length]);
+            products.add(product);
+        }
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            UserEntity user = new UserEntity();
+            user.setId((long) i);
+            user.setEmail("worker-" + i + "@farm.com");
+            users.add(user);
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < DAYS; i++) {
+            dates.add(firstDay.plusDays(i));
+        }
+        recordEntities = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            RecordEntity record = new RecordEntity();
+            record.setId((long) i);
+            record.setProduct(products.get(random.nextInt(PRODUCTS)));
+            record.setUser(users.get(random.nextInt(USERS)));
+            record.setDate(dates.get(random.nextInt(DAYS)));
+            record.setAmount(1 + random.nextInt(100));
+            recordEntities.add(record);
+        }
+        begin = firstDay.plusDays(30);
+        end = firstDay.plusDays(120);
+    }
+
+    @Benchmark
+    public Map<String, Long> perProductScan() {
+        List<RecordEntity> recordsInRange = recordEntities.stream()
+                .filter(record -> record.getDate().isAfter(begin.minusDays(1))
+                        && record.getDate().isBefore(end.plusDays(1)))
+                .toList();
+        List<String> productNames = recordsInRange.stream()
+                .map(record -> record.getProduct().getName())
+                .distinct()
+                .toList();
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (String name : productNames) {
+            totals.put(name, (long) recordsInRange.stream()
+                    .filter(record -> record.getProduct().getName().equals(name))
+                    .mapToInt(RecordEntity::getAmount)
+                    .sum());
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<String, Long> singlePassGrouping() {
+        Map<String, Long> totals = new HashMap<>();
+        for (RecordEntity record : recordEntities) {
+            LocalDate date = record.getDate();
+            if (!date.isBefore(begin) && !date.isAfter(end)) {
+                totals.merge(record.getProduct().getName(), (long) record.getAmount(), Long::sum);
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<Long, Long> dailyRollupFold() {
+        Map<RecordDailyRollupId, Long> rollups = new HashMap<>();
+        for (RecordEntity record : recordEntities) {
+            RecordDailyRollupId id = new RecordDailyRollupId(record.getDate(), record.getProduct().getId(), record.getUser().getId());
+            rollups.merge(id, (long) record.getAmount(), Long::sum);
+        }
+        Map<Long, Long> totals = new HashMap<>();
+        rollups.forEach((id, amount) -> {
+            if (!id.getDate().isBefore(begin) && !id.getDate().isAfter(end)) {
+                totals.merge(id.getProductId(), amount, Long::sum);
+            }
+        });
+        return totals;
+    }
+}
@@ -0,0 +1,47 @@
+package com.lofominhili.farmflow.database;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the Spring contexts of the database benchmarks.
+ * The benchmarks run against the PostgreSQL database given by the {@code bench.datasource.url},
+ * {@code bench.datasource.username} and {@code bench.datasource.password} system properties,
+ * which default to the database from {@code compose.yaml}.
+ * The contexts never start a web server or Docker Compose.
+ *
+ * @author daniel
+ */
+public final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Starts a non-web Spring context connected to the benchmark database.
+     *
+     * @param configuration The configuration class of the context.
+     * @param properties    Additional properties of the context, in the {@code key=value} form.
+     * @return The started context, which the caller has to close.
+     */
+    public static ConfigurableApplicationContext start(Class<?> configuration, String... properties) {
+        List<String> allProperties = new ArrayList<>(List.of(
+                "spring.datasource.url=" + System.getProperty("bench.datasource.url", "jdbc:postgresql://localhost:5433/mydatabase"),
+                "spring.datasource.username=" + System.getProperty("bench.datasource.username", "admin"),
+                "spring.datasource.password=" + System.getProperty("bench.datasource.password", "1111"),
+                "spring.docker.compose.enabled=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=warn"));
+        allProperties.addAll(List.of(properties));
+        SpringApplication application = new SpringApplicationBuilder(configuration)
+                .web(WebApplicationType.NONE)
+                .properties(allProperties.toArray(String[]::new))
+                .build();
+        return application.run();
+    }
+}
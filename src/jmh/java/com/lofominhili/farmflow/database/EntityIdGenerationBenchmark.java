@@ -0,0 +1,117 @@
+package com.lofominhili.farmflow.database;
+
+import com.lofominhili.farmflow.utils.HibernateConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks inserting collection records with {@code saveAll} against PostgreSQL under both id generation strategies.
+ * {@code identitySaveAll} stores records whose ids come from an {@code IDENTITY} column, so Hibernate executes
+ * every insert on its own to read the generated id back, and {@code sequenceSaveAll} stores records whose ids
+ * come from a pooled sequence with an allocation size of 50, like the application entities, so the inserts
+ * are sent in JDBC batches. Both run with the Hibernate settings of {@link HibernateConfig}.
+ * The records go to two benchmark tables, which Hibernate creates on start and drops on shutdown,
+ * so the application tables are never touched. The database is given by the {@code bench.datasource.*}
+ * system properties described in {@link BenchmarkDatabase}.
+ *
+ * @author daniel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EntityIdGenerationBenchmark {
+
+    private static final int PRODUCTS = 20;
+    private static final int USERS = 200;
+
+    @Param({"100", "1000", "10000"})
+    private int records;
+
+    private ConfigurableApplicationContext context;
+    private IdentityRecordRepository identityRecordRepository;
+    private SequenceRecordRepository sequenceRecordRepository;
+    private JdbcTemplate jdbcTemplate;
+    private Random random;
+
+    private List<IdentityRecordEntity> identityRecords;
+    private List<SequenceRecordEntity> sequenceRecords;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(BenchmarkConfiguration.class, "spring.jpa.hibernate.ddl-auto=create-drop");
+        identityRecordRepository = context.getBean(IdentityRecordRepository.class);
+        sequenceRecordRepository = context.getBean(SequenceRecordRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        random = new Random(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void createRecords() {
+        LocalDate today = LocalDate.now();
+        identityRecords = new ArrayList<>(records);
+        sequenceRecords = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            long userId = random.nextInt(USERS);
+            long productId = random.nextInt(PRODUCTS);
+            int amount = 1 + random.nextInt(100);
+
+            IdentityRecordEntity identityRecord = new IdentityRecordEntity();
+            identityRecord.setUserId(userId);
+            identityRecord.setProductId(productId);
+            identityRecord.setAmount(amount);
+            identityRecord.setDate(today);
+            identityRecords.add(identityRecord);
+
+            SequenceRecordEntity sequenceRecord = new SequenceRecordEntity();
+            sequenceRecord.setUserId(userId);
+            sequenceRecord.setProductId(productId);
+            sequenceRecord.setAmount(amount);
+            sequenceRecord.setDate(today);
+            sequenceRecords.add(sequenceRecord);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE _benchmark_identity_record, _benchmark_sequence_record");
+    }
+
+    @Benchmark
+    public List<IdentityRecordEntity> identitySaveAll() {
+        return identityRecordRepository.saveAll(identityRecords);
+    }
+
+    @Benchmark
+    public List<SequenceRecordEntity> sequenceSaveAll() {
+        return sequenceRecordRepository.saveAll(sequenceRecords);
+    }
+
+    @Configuration
+    @EnableAutoConfiguration(exclude = LiquibaseAutoConfiguration.class)
+    @EntityScan(basePackageClasses = EntityIdGenerationBenchmark.class)
+    @EnableJpaRepositories(basePackageClasses = EntityIdGenerationBenchmark.class)
+    @Import(HibernateConfig.class)
+    static class BenchmarkConfiguration {
+    }
+}
@@ -0,0 +1,28 @@
+package com.lofominhili.farmflow.database;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "_benchmark_identity_record")
+@Data
+public class IdentityRecordEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "amount")
+    private Integer amount;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+}
@@ -0,0 +1,29 @@
+package com.lofominhili.farmflow.database;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "_benchmark_sequence_record")
+@Data
+public class SequenceRecordEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "benchmark_record_seq")
+    @SequenceGenerator(name = "benchmark_record_seq", sequenceName = "_benchmark_record_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "amount")
+    private Integer amount;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+}
@@ -0,0 +1,8 @@
+package com.lofominhili.farmflow.database;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SequenceRecordRepository extends JpaRepository<SequenceRecordEntity, Long> {
+}
@@ -0,0 +1,193 @@
+package com.lofominhili.farmflow.database;
+
+import com.lofominhili.farmflow.dto.ProjectionDTO.ProductTotalDTO;
+import com.lofominhili.farmflow.dto.ProjectionDTO.ProductWorkerDTO;
+import com.lofominhili.farmflow.entities.RecordEntity;
+import com.lofominhili.farmflow.repository.RecordDailyRollupRepository;
+import com.lofominhili.farmflow.repository.RecordRepository;
+import com.lofominhili.farmflow.utils.HibernateConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the farm statistics read paths against PostgreSQL seeded with a million collection records.
+ * {@code findAllInMemory} is the original algorithm, which loads every record through {@code findAll()}
+ * and sums them in memory, {@code recordGroupBy} runs the {@code GROUP BY} queries over {@code _record}
+ * that replaced it, and {@code dailyRollupGroupBy} runs the queries over {@code _record_daily_rollup}
+ * that the statistics service uses now. Each of them computes the per-product totals and workers of a 90-day range.
+ * On start, Liquibase brings the database to the application schema, and the benchmark seeds its own products,
+ * workers, records spread over the last year and their daily rollups, which it deletes again on shutdown.
+ * The other rows of the database are included in the statistics, so the benchmark is best run against
+ * a dedicated database given by the {@code bench.datasource.*} system properties described in {@link BenchmarkDatabase}.
+ *
+ * @author daniel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StatisticsQueryBenchmark {
+
+    private static final int PRODUCTS = 20;
+    private static final int USERS = 200;
+    private static final int DAYS = 365;
+
+    @Param({"1000000"})
+    private int records;
+
+    private ConfigurableApplicationContext context;
+    private RecordRepository recordRepository;
+    private RecordDailyRollupRepository recordDailyRollupRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private JdbcTemplate jdbcTemplate;
+
+    private String prefix;
+    private LocalDate begin;
+    private LocalDate end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(BenchmarkConfiguration.class,
+                "spring.liquibase.change-log=classpath:db.changelog/changelog-master.yml");
+        recordRepository = context.getBean(RecordRepository.class);
+        recordDailyRollupRepository = context.getBean(RecordDailyRollupRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        prefix = "statistics-benchmark-" + UUID.randomUUID();
+        LocalDate firstDay = LocalDate.now().minusDays(DAYS - 1);
+        begin = firstDay.plusDays(30);
+        end = firstDay.plusDays(120);
+        try {
+            seed(firstDay);
+        } catch (RuntimeException e) {
+            tearDown();
+            throw e;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            String products = "SELECT id FROM _product WHERE name LIKE ?";
+            jdbcTemplate.update("DELETE FROM _record_daily_rollup WHERE product_id IN (" + products + ")", prefix + "%");
+            jdbcTemplate.update("DELETE FROM _record WHERE product_id IN (" + products + ")", prefix + "%");
+            jdbcTemplate.update("DELETE FROM _product WHERE name LIKE ?", prefix + "%");
+            jdbcTemplate.update("DELETE FROM _user WHERE email LIKE ?", prefix + "%");
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public void findAllInMemory(Blackhole blackhole) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Map<String, Long> totals = new HashMap<>();
+            Map<String, Set<String>> workers = new HashMap<>();
+            for (RecordEntity record : recordRepository.findAll()) {
+                LocalDate date = record.getDate();
+                if (!date.isBefore(begin) && !date.isAfter(end)) {
+                    String name = record.getProduct().getName();
+                    totals.merge(name, (long) record.getAmount(), Long::sum);
+                    workers.computeIfAbsent(name, key -> new HashSet<>()).add(record.getUser().getEmail());
+                }
+            }
+            blackhole.consume(totals);
+            blackhole.consume(workers);
+        });
+    }
+
+    @Benchmark
+    public void recordGroupBy(Blackhole blackhole) {
+        blackhole.consume(entityManager.createQuery("""
+                        select new com.lofominhili.farmflow.dto.ProjectionDTO.ProductTotalDTO(p.name, sum(r.amount), p.measure)
+                        from RecordEntity r join r.product p
+                        where r.date between :begin and :end
+                        group by p.id, p.name, p.measure
+                        order by p.name
+                        """, ProductTotalDTO.class)
+                .setParameter("begin", begin)
+                .setParameter("end", end)
+                .getResultList());
+        blackhole.consume(entityManager.createQuery("""
+                        select distinct new com.lofominhili.farmflow.dto.ProjectionDTO.ProductWorkerDTO(p.name, u.email)
+                        from RecordEntity r join r.product p join r.user u
+                        where r.date between :begin and :end
+                        """, ProductWorkerDTO.class)
+                .setParameter("begin", begin)
+                .setParameter("end", end)
+                .getResultList());
+    }
+
+    @Benchmark
+    public void dailyRollupGroupBy(Blackhole blackhole) {
+        blackhole.consume(recordDailyRollupRepository.sumAmountByProduct(begin, end));
+        blackhole.consume(recordDailyRollupRepository.findProductWorkers(begin, end));
+    }
+
+    private void seed(LocalDate firstDay) {
+        for (LocalDate month = firstDay.withDayOfMonth(1); !month.isAfter(LocalDate.now()); month = month.plusMonths(1)) {
+            recordRepository.createPartition(month);
+        }
+        jdbcTemplate.update("""
+                INSERT INTO _product (name, measure, amount)
+                SELECT ? || '-' || n, 'KILOGRAM', 0
+                FROM generate_series(0, ? - 1) n
+                """, prefix, PRODUCTS);
+        jdbcTemplate.update("""
+                INSERT INTO _user (name, surname, patronymic, password, email, role, fired)
+                SELECT 'Worker', 'Benchmark', 'Statistics', 'not-used', ? || '-' || n || '@farm.com', 'USER', false
+                FROM generate_series(0, ? - 1) n
+                """, prefix, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO _record (user_id, product_id, amount, date)
+                SELECT u.id, p.id, 1 + (g * 7919) % 100, ?::date + ((g * 104729) % ?)::int
+                FROM generate_series(0::bigint, ? - 1) g
+                         JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM _user WHERE email LIKE ?) u
+                              ON u.n = g % ?
+                         JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM _product WHERE name LIKE ?) p
+                              ON p.n = (g / ?) % ?
+                """, firstDay, DAYS, records, prefix + "%", USERS, prefix + "%", USERS, PRODUCTS);
+        jdbcTemplate.update("""
+                INSERT INTO _record_daily_rollup (date, product_id, user_id, amount, record_count)
+                SELECT date, product_id, user_id, SUM(amount), COUNT(*)
+                FROM _record
+                WHERE product_id IN (SELECT id FROM _product WHERE name LIKE ?)
+                GROUP BY date, product_id, user_id
+                """, prefix + "%");
+        jdbcTemplate.execute("ANALYZE _product, _user, _record, _record_daily_rollup");
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = RecordEntity.class)
+    @EnableJpaRepositories(basePackageClasses = RecordRepository.class)
+    @Import(HibernateConfig.class)
+    static class BenchmarkConfiguration {
+    }
+}
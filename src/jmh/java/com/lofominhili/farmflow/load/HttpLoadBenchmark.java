@@ -0,0 +1,183 @@
+package com.lofominhili.farmflow.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load benchmark of a running FarmFlow instance.
+ * It signs in, makes sure a benchmark product with a large harvest rate exists, and then drives the collection
+ * and the statistics endpoints with {@code load.concurrency} concurrent clients, each sending its next request
+ * as soon as the previous one has been answered. After a warm-up, requests per second and latency percentiles
+ * are measured for every scenario and written to {@code load-result-<label>.json}.
+ * Running it once against an instance started with {@code spring.threads.virtual.enabled=false}
+ * and once with {@code true}, with different labels, compares platform and virtual threads.
+ *
+ * @author daniel
+ */
+public class HttpLoadBenchmark {
+
+    private static final String PRODUCT_NAME = "load-benchmark-product";
+    private static final String TOKEN_SEPARATOR = ": ";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final String baseUrl = System.getProperty("load.base-url", "http://localhost:8080");
+    private final String email = System.getProperty("load.email", "admin@gmail.com");
+    private final String password = System.getProperty("load.password", "12345678");
+    private final int concurrency = Integer.getInteger("load.concurrency", 200);
+    private final int warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+    private final int durationSeconds = Integer.getInteger("load.duration-seconds", 30);
+    private final String label = System.getProperty("load.label", "platform");
+    private final Path resultDir = Path.of(System.getProperty("load.result-dir", "target"));
+
+    private String token;
+
+    public static void main(String[] args) throws Exception {
+        new HttpLoadBenchmark().run();
+    }
+
+    private void run() throws Exception {
+        token = signIn();
+        prepareProduct();
+        LocalDate today = LocalDate.now();
+        Map<String, HttpRequest> scenarios = new LinkedHashMap<>();
+        scenarios.put("add-collected-product", request("/api/product/add-collected-product", "POST",
+                Map.of("name", PRODUCT_NAME, "measure", "kilogram", "amount", 1)));
+        scenarios.put("get-statistics-by-farm", request("/api/admin/get-statistics-by-farm", "GET",
+                Map.of("begin", today.minusDays(30).toString(), "end", today.toString())));
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("label", label);
+        results.put("concurrency", concurrency);
+        results.put("durationSeconds", durationSeconds);
+        for (Map.Entry<String, HttpRequest> scenario : scenarios.entrySet()) {
+            drive(scenario.getValue(), warmupSeconds);
+            Map<String, Object> result = drive(scenario.getValue(), durationSeconds);
+            System.out.printf("%s [%s]: %s%n", scenario.getKey(), label, result);
+            results.put(scenario.getKey(), result);
+        }
+        Files.createDirectories(resultDir);
+        Path resultFile = resultDir.resolve("load-result-" + label + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultFile.toFile(), results);
+        System.out.println("Results written to " + resultFile);
+    }
+
+    private Map<String, Object> drive(HttpRequest request, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<ClientResult>> clients = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> runClient(request, deadline)));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Future<ClientResult> client : clients) {
+            ClientResult result = client.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + result.count());
+            System.arraycopy(result.latencies(), 0, latencies, offset, result.count());
+            errors += result.errors();
+        }
+        Arrays.sort(latencies);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", latencies.length);
+        result.put("errors", errors);
+        result.put("requestsPerSecond", latencies.length / (elapsedNanos / 1e9));
+        result.put("p50Millis", percentile(latencies, 0.50));
+        result.put("p99Millis", percentile(latencies, 0.99));
+        result.put("maxMillis", percentile(latencies, 1.0));
+        return result;
+    }
+
+    private ClientResult runClient(HttpRequest request, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        while (System.nanoTime() - deadline < 0) {
+            long sentAt = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors++;
+                }
+            } catch (IOException e) {
+                errors++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - sentAt;
+        }
+        return new ClientResult(latencies, count, errors);
+    }
+
+    private String signIn() throws IOException, InterruptedException {
+        HttpRequest signIn = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/sign-in"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of("email", email, "password", password))))
+                .build();
+        HttpResponse<String> response = client.send(signIn, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Sign in failed: " + response.body());
+        }
+        String message = objectMapper.readTree(response.body()).path("data").asText();
+        return message.substring(message.lastIndexOf(TOKEN_SEPARATOR) + TOKEN_SEPARATOR.length()).trim();
+    }
+
+    private void prepareProduct() throws IOException, InterruptedException {
+        client.send(request("/api/product/register-product", "POST",
+                Map.of("name", PRODUCT_NAME, "measure", "kilogram", "amount", 0)), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<String> response = client.send(request("/api/admin/set-harvest-rate", "POST",
+                Map.of("product_name", PRODUCT_NAME, "amount", Integer.MAX_VALUE)), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Setting the harvest rate failed: " + response.body());
+        }
+    }
+
+    private HttpRequest request(String path, String method, Map<String, Object> body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+
+    private record ClientResult(long[] latencies, int count, long errors) {
+    }
+}
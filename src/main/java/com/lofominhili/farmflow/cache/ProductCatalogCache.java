@@ -0,0 +1,136 @@
+package com.lofominhili.farmflow.cache;
+
+import com.lofominhili.farmflow.entities.ProductEntity;
+import com.lofominhili.farmflow.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of the product catalog keyed by product name and id.
+ * The catalog is small and changes only when a product is registered, so it is loaded completely at startup
+ * and kept up to date by {@link #put(ProductEntity)}. Lookups of unknown products fall through to the
+ * {@link ProductRepository} and cache the result.
+ * The cache holds detached snapshots of {@link ProductEntity}; callers receive their own copy, so changing it
+ * does not affect the cache. The snapshot's amount reflects the moment the product was cached and is not kept up to date.
+ * This component requires an instance of {@link ProductRepository} to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogCache {
+
+    private final ProductRepository productRepository;
+
+    private final Map<String, ProductEntity> productsByName = new ConcurrentHashMap<>();
+    private final Map<Long, ProductEntity> productsById = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Loads the whole product catalog after the bean has been instantiated.
+     */
+    @PostConstruct
+    public void load() {
+        invalidateAll();
+    }
+
+    /**
+     * Finds a product by its name, querying the {@link ProductRepository} only on a cache miss.
+     *
+     * @param name The name of the product.
+     * @return A snapshot of the product, or an empty {@link Optional} if no such product exists.
+     */
+    public Optional<ProductEntity> findByName(String name) {
+        ProductEntity product = productsByName.get(name);
+        if (product != null) {
+            hits.incrementAndGet();
+            return Optional.of(snapshot(product));
+        }
+        misses.incrementAndGet();
+        return productRepository.findByName(name)
+                .map(this::store);
+    }
+
+    /**
+     * Finds a product by its id, querying the {@link ProductRepository} only on a cache miss.
+     *
+     * @param id The id of the product.
+     * @return A snapshot of the product, or an empty {@link Optional} if no such product exists.
+     */
+    public Optional<ProductEntity> findById(Long id) {
+        ProductEntity product = productsById.get(id);
+        if (product != null) {
+            hits.incrementAndGet();
+            return Optional.of(snapshot(product));
+        }
+        misses.incrementAndGet();
+        return productRepository.findById(id)
+                .map(this::store);
+    }
+
+    /**
+     * Adds or replaces a product in the cache, e.g. right after it has been registered.
+     *
+     * @param product The persisted product.
+     */
+    public void put(ProductEntity product) {
+        store(product);
+    }
+
+    /**
+     * Removes a single product from the cache, so the next lookup reads it from the database.
+     *
+     * @param name The name of the product to evict.
+     */
+    public void invalidate(String name) {
+        ProductEntity product = productsByName.remove(name);
+        if (product != null) {
+            productsById.remove(product.getId());
+        }
+    }
+
+    /**
+     * Drops every cached product and reloads the whole catalog from the database.
+     */
+    public void invalidateAll() {
+        productsByName.clear();
+        productsById.clear();
+        productRepository.findAll().forEach(this::store);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int getSize() {
+        return productsById.size();
+    }
+
+    private ProductEntity store(ProductEntity product) {
+        ProductEntity snapshot = snapshot(product);
+        productsByName.put(snapshot.getName(), snapshot);
+        productsById.put(snapshot.getId(), snapshot);
+        return snapshot(snapshot);
+    }
+
+    private static ProductEntity snapshot(ProductEntity product) {
+        ProductEntity snapshot = new ProductEntity();
+        snapshot.setId(product.getId());
+        snapshot.setName(product.getName());
+        snapshot.setMeasure(product.getMeasure());
+        snapshot.setAmount(product.getAmount());
+        snapshot.setDate(product.getDate());
+        return snapshot;
+    }
+}
@@ -3,31 +3,44 @@ package com.lofominhili.farmflow.controllers;
 import com.lofominhili.farmflow.dto.BasicDTO.SuccessDTO;
 import com.lofominhili.farmflow.dto.EntityDTO.HarvestRateDTO;
 import com.lofominhili.farmflow.dto.EntityDTO.RatingDTO;
+import com.lofominhili.farmflow.dto.ProjectionDTO.RecordFilterDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.RecordExportRequestDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.RecordHistoryRequestDTO;
 import com.lofominhili.farmflow.dto.RequestDTO.StatisticByUserRequestDTO;
 import com.lofominhili.farmflow.dto.RequestDTO.StatisticsByFarmRequestDTO;
+import com.lofominhili.farmflow.dto.ResponseDTO.RecordHistoryPageDTO;
 import com.lofominhili.farmflow.dto.ResponseDTO.StatisticByUserResponseDTO;
 import com.lofominhili.farmflow.dto.ResponseDTO.StatisticsByFarmResponseDTO;
 import com.lofominhili.farmflow.exceptions.NotFoundException;
 import com.lofominhili.farmflow.exceptions.RequestDataValidationFailedException;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
 import com.lofominhili.farmflow.services.AdminService.AdminService;
 import com.lofominhili.farmflow.services.RecordService.RecordService;
+import com.lofominhili.farmflow.utils.ExportFormat;
 import com.lofominhili.farmflow.utils.GlobalExceptionHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
  * REST controller for handling administrative operations.
- * This controller provides endpoints for rating users, retrieving product statistics by user and farm,
- * blocking users, and setting harvest rates.
+ * This controller provides endpoints for rating users, retrieving and streaming product statistics by user and farm,
+ * exporting and browsing raw records, blocking users, revoking user sessions, setting harvest rates, invalidating the product catalog cache,
+ * and pushing harvest quota progress.
  * This controller is mapped to "/api/admin" base path.
  * It requires instances of {@link AdminService} and {@link RecordService} to be injected via constructor.
  *
@@ -129,6 +142,128 @@ public class AdminController {
                 ), HttpStatus.OK);
     }
 
+    /**
+     * Endpoint for streaming product statistics by user.
+     * This method validates the incoming {@link StatisticByUserRequestDTO} using {@link Valid} annotation.
+     * If validation fails, it throws a {@link RequestDataValidationFailedException}.
+     * Otherwise, it delegates to {@link RecordService#writeProductStatisticsByUser(StatisticByUserRequestDTO, java.io.OutputStream)},
+     * which writes the response incrementally to the servlet output stream.
+     *
+     * @param statisticByUserRequestDTO The {@link StatisticByUserRequestDTO} containing information about the user's email and date range.
+     * @param validationResult          The result of validation performed by Spring's {@link BindingResult}.
+     * @param response                  The {@link HttpServletResponse} the statistics are written to.
+     * @throws RequestDataValidationFailedException If the incoming data fails validation.
+     * @throws NotFoundException                    If the user specified in the statisticByUserRequestDTO is not found.
+     * @throws IOException                          If writing the response fails.
+     */
+    @Operation(summary = "Streams products statistic by user")
+    @GetMapping("/stream-statistics-by-user")
+    public void streamProductStatisticByUser(
+            @Valid @RequestBody StatisticByUserRequestDTO statisticByUserRequestDTO,
+            BindingResult validationResult,
+            HttpServletResponse response
+    ) throws RequestDataValidationFailedException, NotFoundException, IOException {
+        if (validationResult.hasErrors()) {
+            throw new RequestDataValidationFailedException(GlobalExceptionHandler.handleValidationResults(validationResult));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        recordService.writeProductStatisticsByUser(statisticByUserRequestDTO, response.getOutputStream());
+    }
+
+    /**
+     * Endpoint for streaming product statistics by farm.
+     * This method validates the incoming {@link StatisticsByFarmRequestDTO} using {@link Valid} annotation.
+     * If validation fails, it throws a {@link RequestDataValidationFailedException}.
+     * Otherwise, it delegates to {@link RecordService#writeProductStatisticsByFarm(StatisticsByFarmRequestDTO, java.io.OutputStream)},
+     * which writes the response incrementally to the servlet output stream.
+     *
+     * @param statisticsByFarmRequestDTO The {@link StatisticsByFarmRequestDTO} containing information about the date range for retrieving statistics.
+     * @param validationResult           The result of validation performed by Spring's {@link BindingResult}.
+     * @param response                   The {@link HttpServletResponse} the statistics are written to.
+     * @throws RequestDataValidationFailedException If the incoming data fails validation.
+     * @throws IOException                          If writing the response fails.
+     */
+    @Operation(summary = "Streams products statistics by farm")
+    @GetMapping("/stream-statistics-by-farm")
+    public void streamProductStatisticsByFarm(
+            @Valid @RequestBody StatisticsByFarmRequestDTO statisticsByFarmRequestDTO,
+            BindingResult validationResult,
+            HttpServletResponse response
+    ) throws RequestDataValidationFailedException, IOException {
+        if (validationResult.hasErrors()) {
+            throw new RequestDataValidationFailedException(GlobalExceptionHandler.handleValidationResults(validationResult));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        recordService.writeProductStatisticsByFarm(statisticsByFarmRequestDTO, response.getOutputStream());
+    }
+
+    /**
+     * Endpoint for browsing the collection history of the whole farm, one worker, or one product page by page.
+     * This method validates the incoming {@link RecordHistoryRequestDTO} using {@link Valid} annotation.
+     * If validation fails, it throws a {@link RequestDataValidationFailedException}.
+     * Otherwise, it delegates to {@link RecordService#getRecordHistory(RecordHistoryRequestDTO)}.
+     *
+     * @param recordHistoryRequestDTO The {@link RecordHistoryRequestDTO} containing the optional product name, email, page size,
+     *                                and the continuation token returned with the previous page.
+     * @param validationResult        The result of validation performed by Spring's {@link BindingResult}.
+     * @return A {@link ResponseEntity} containing the records of the page and the continuation token of the next page.
+     * @throws RequestDataValidationFailedException If the incoming data or the continuation token fails validation.
+     * @throws NotFoundException                    If the product or the user specified in the recordHistoryRequestDTO is not found.
+     */
+    @Operation(summary = "Gets a page of the collection history")
+    @GetMapping("/history")
+    public ResponseEntity<SuccessDTO<RecordHistoryPageDTO>> getRecordHistory(
+            @Valid @RequestBody RecordHistoryRequestDTO recordHistoryRequestDTO,
+            BindingResult validationResult
+    ) throws RequestDataValidationFailedException, NotFoundException {
+        if (validationResult.hasErrors()) {
+            throw new RequestDataValidationFailedException(GlobalExceptionHandler.handleValidationResults(validationResult));
+        }
+        return new ResponseEntity<>(
+                new SuccessDTO<>(
+                        HttpStatus.OK.value(),
+                        "get history",
+                        recordService.getRecordHistory(recordHistoryRequestDTO)
+                ), HttpStatus.OK);
+    }
+
+    /**
+     * Endpoint for exporting raw records as a gzip-compressed CSV or NDJSON file.
+     * This method validates the incoming {@link RecordExportRequestDTO} using {@link Valid} annotation.
+     * If validation fails, it throws a {@link RequestDataValidationFailedException}.
+     * Otherwise, it resolves the product and the user to filter on through {@link RecordService#resolveExportFilter(RecordExportRequestDTO)},
+     * so a missing product or user is still reported as a JSON error, and only then switches the response to a gzip attachment
+     * and delegates to {@link RecordService#exportRecords(RecordExportRequestDTO, RecordFilterDTO, java.io.OutputStream)},
+     * which writes the compressed records incrementally to the servlet output stream.
+     *
+     * @param recordExportRequestDTO The {@link RecordExportRequestDTO} containing the date range, the optional product name and email,
+     *                               and the format of the export.
+     * @param validationResult       The result of validation performed by Spring's {@link BindingResult}.
+     * @param response               The {@link HttpServletResponse} the records are written to.
+     * @throws RequestDataValidationFailedException If the incoming data fails validation.
+     * @throws NotFoundException                    If the product or the user specified in the recordExportRequestDTO is not found.
+     * @throws IOException                          If writing the response fails.
+     */
+    @Operation(summary = "Exports records as gzip-compressed CSV or NDJSON")
+    @GetMapping("/export/records")
+    public void exportRecords(
+            @Valid @RequestBody RecordExportRequestDTO recordExportRequestDTO,
+            BindingResult validationResult,
+            HttpServletResponse response
+    ) throws RequestDataValidationFailedException, NotFoundException, IOException {
+        if (validationResult.hasErrors()) {
+            throw new RequestDataValidationFailedException(GlobalExceptionHandler.handleValidationResults(validationResult));
+        }
+        RecordFilterDTO recordFilter = recordService.resolveExportFilter(recordExportRequestDTO);
+        ExportFormat format = recordExportRequestDTO.format() == null ? ExportFormat.CSV : recordExportRequestDTO.format();
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("records." + format.getExtension() + ".gz")
+                .build()
+                .toString());
+        recordService.exportRecords(recordExportRequestDTO, recordFilter, response.getOutputStream());
+    }
+
     /**
      * Endpoint for blocking a user.
      * This method delegates the blocking operation to {@link AdminService#block(String)}.
@@ -149,6 +284,26 @@ public class AdminController {
                 ), HttpStatus.OK);
     }
 
+    /**
+     * Endpoint for revoking all sessions of a user.
+     * This method delegates the revoking operation to {@link AdminService#revokeSessions(String)}.
+     *
+     * @param email The email address of the user whose sessions are to be revoked.
+     * @return A {@link ResponseEntity} containing a success message if the revoking operation is successful.
+     * @throws NotFoundException If the user specified by the email is not found.
+     */
+    @Operation(summary = "Revokes all sessions of user by email")
+    @PostMapping("/revoke-sessions/{email}")
+    public ResponseEntity<SuccessDTO<String>> revokeSessions(@PathVariable @Parameter(description = "The email address of the user whose sessions are to be revoked") String email) throws NotFoundException {
+        adminService.revokeSessions(email);
+        return new ResponseEntity<>(
+                new SuccessDTO<>(
+                        HttpStatus.OK.value(),
+                        "revoke sessions",
+                        "Successfully revoked all sessions!"
+                ), HttpStatus.OK);
+    }
+
     /**
      * Endpoint for setting the harvest rate for a product.
      * This method validates the incoming {@link HarvestRateDTO} using {@link Valid} annotation.
@@ -178,4 +333,37 @@ public class AdminController {
                         "Successfully set!"
                 ), HttpStatus.OK);
     }
+
+    /**
+     * Endpoint for invalidating the product catalog cache.
+     * This method delegates the operation to {@link AdminService#invalidateProductCatalog()}.
+     *
+     * @return A {@link ResponseEntity} containing a success message if the catalog has been reloaded.
+     */
+    @Operation(summary = "Reloads the cached product catalog")
+    @PostMapping("/invalidate-product-catalog")
+    public ResponseEntity<SuccessDTO<String>> invalidateProductCatalog() {
+        adminService.invalidateProductCatalog();
+        return new ResponseEntity<>(
+                new SuccessDTO<>(
+                        HttpStatus.OK.value(),
+                        "invalidate product catalog",
+                        "Successfully reloaded!"
+                ), HttpStatus.OK);
+    }
+
+    /**
+     * Endpoint for streaming harvest quota progress as Server-Sent Events.
+     * This method delegates to {@link AdminService#streamQuotaProgress()}.
+     * Every {@code quota-progress} event holds the product, the amount collected since the previous event
+     * of the same product, and the amount of the harvest rate left in the current period.
+     *
+     * @return The {@link SseEmitter} the events are sent through.
+     * @throws ServiceOverloadedException If too many clients are subscribed at the moment.
+     */
+    @Operation(summary = "Streams harvest quota progress")
+    @GetMapping(value = "/quota-progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQuotaProgress() throws ServiceOverloadedException {
+        return adminService.streamQuotaProgress();
+    }
 }
@@ -5,10 +5,14 @@ import com.lofominhili.farmflow.dto.EntityDTO.UserDTO;
 import com.lofominhili.farmflow.dto.RequestDTO.SignInRequest;
 import com.lofominhili.farmflow.exceptions.AuthenticationFailedException;
 import com.lofominhili.farmflow.exceptions.RequestDataValidationFailedException;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
+import com.lofominhili.farmflow.exceptions.TokenValidationException;
 import com.lofominhili.farmflow.services.AuthService.AuthService;
+import com.lofominhili.farmflow.services.JwtService.JwtService;
 import com.lofominhili.farmflow.utils.GlobalExceptionHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -21,9 +25,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 /**
  * REST controller for handling authentication operations.
- * This controller provides endpoints for user registration and user sign-in.
+ * This controller provides endpoints for user registration, user sign-in and logout.
  * This controller is mapped to "/api/auth" base path.
- * It requires an instance of {@link AuthService} to be injected via constructor.
+ * It requires instances of {@link AuthService} and {@link JwtService} to be injected via constructor.
  *
  * @author daniel
  */
@@ -34,6 +38,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final JwtService jwtService;
 
     /**
      * Endpoint for registering a new user.
@@ -46,13 +51,14 @@ public class AuthController {
      * @return A {@link ResponseEntity} containing a success message if the registration operation is successful.
      * @throws RequestDataValidationFailedException If the incoming data fails validation.
      * @throws AuthenticationFailedException        If the registration operation fails.
+     * @throws ServiceOverloadedException           If too many passwords are being hashed at the moment.
      */
     @Operation(summary = "Register new user")
     @PostMapping("/register-user")
     public ResponseEntity<SuccessDTO<String>> registerUser(
             @Valid @RequestBody UserDTO userDTO,
             BindingResult validationResult
-    ) throws RequestDataValidationFailedException, AuthenticationFailedException {
+    ) throws RequestDataValidationFailedException, AuthenticationFailedException, ServiceOverloadedException {
         if (validationResult.hasErrors()) {
             throw new RequestDataValidationFailedException(GlobalExceptionHandler.handleValidationResults(validationResult));
         }
@@ -76,13 +82,14 @@ public class AuthController {
      * @return A {@link ResponseEntity} containing a success message with a token if the sign-in operation is successful.
      * @throws RequestDataValidationFailedException If the incoming data fails validation.
      * @throws AuthenticationFailedException        If the sign-in operation fails.
+     * @throws ServiceOverloadedException           If too many passwords are being hashed at the moment.
      */
     @Operation(summary = "Logins user")
     @PostMapping("/sign-in")
     public ResponseEntity<SuccessDTO<String>> signIn(
             @Valid @RequestBody SignInRequest request,
             BindingResult validationResult
-    ) throws RequestDataValidationFailedException, AuthenticationFailedException {
+    ) throws RequestDataValidationFailedException, AuthenticationFailedException, ServiceOverloadedException {
         if (validationResult.hasErrors()) {
             throw new RequestDataValidationFailedException(GlobalExceptionHandler.handleValidationResults(validationResult));
         }
@@ -93,4 +100,25 @@ public class AuthController {
                         String.format("Successfully signed in! Use this token for further operations: %s", authService.signIn(request))
                 ), HttpStatus.OK);
     }
+
+    /**
+     * Endpoint for user logout.
+     * This method delegates the logout operation to {@link AuthService#logout(String)}
+     * with the token the request was authenticated with, so that the token cannot be used anymore.
+     *
+     * @param request The {@link HttpServletRequest} carrying the token in the {@code Authorization} header.
+     * @return A {@link ResponseEntity} containing a success message if the logout operation is successful.
+     * @throws TokenValidationException If the token cannot be revoked.
+     */
+    @Operation(summary = "Logouts user")
+    @PostMapping("/logout")
+    public ResponseEntity<SuccessDTO<String>> logout(HttpServletRequest request) throws TokenValidationException {
+        authService.logout(jwtService.getToken(request));
+        return new ResponseEntity<>(
+                new SuccessDTO<>(
+                        HttpStatus.OK.value(),
+                        "logout",
+                        "Successfully logged out!"
+                ), HttpStatus.OK);
+    }
 }
@@ -3,10 +3,15 @@ package com.lofominhili.farmflow.controllers;
 import com.lofominhili.farmflow.dto.BasicDTO.SuccessDTO;
 import com.lofominhili.farmflow.dto.EntityDTO.HarvestRateDTO;
 import com.lofominhili.farmflow.dto.EntityDTO.ProductDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.CollectedProductsRequestDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.RecordHistoryRequestDTO;
+import com.lofominhili.farmflow.dto.ResponseDTO.RecordHistoryPageDTO;
 import com.lofominhili.farmflow.exceptions.NotFoundException;
 import com.lofominhili.farmflow.exceptions.ProductDuplicateException;
 import com.lofominhili.farmflow.exceptions.RequestDataValidationFailedException;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
 import com.lofominhili.farmflow.services.ProductService.ProductService;
+import com.lofominhili.farmflow.services.RecordService.RecordService;
 import com.lofominhili.farmflow.utils.GlobalExceptionHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,16 +20,20 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * REST controller for handling product-related operations.
- * This controller provides endpoints for registering products and adding collected products.
+ * This controller provides endpoints for registering products, adding collected products one by one or in batches,
+ * and browsing the current user's own collection history.
  * This controller is mapped to "/api/product" base path.
- * It requires an instance of {@link ProductService} to be injected via constructor.
+ * It requires instances of {@link ProductService} and {@link RecordService} to be injected via constructor.
  *
  * @author daniel
  */
@@ -35,6 +44,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProductController {
 
     private final ProductService productService;
+    private final RecordService recordService;
 
     /**
      * Endpoint for registering a new product.
@@ -77,13 +87,14 @@ public class ProductController {
      * @return A {@link ResponseEntity} containing a success message and updated harvest rate if the operation is successful.
      * @throws RequestDataValidationFailedException If the incoming data fails validation.
      * @throws NotFoundException                    If the product specified in the productDTO is not found.
+     * @throws ServiceOverloadedException           If the collection cannot be accepted because the service is overloaded.
      */
     @Operation(summary = "Add collected product by user")
     @PostMapping("/add-collected-product")
     public ResponseEntity<SuccessDTO<HarvestRateDTO>> addCollectedProduct(
             @Valid @RequestBody ProductDTO productDTO,
             BindingResult validationResult
-    ) throws RequestDataValidationFailedException, NotFoundException {
+    ) throws RequestDataValidationFailedException, NotFoundException, ServiceOverloadedException {
         if (validationResult.hasErrors()) {
             throw new RequestDataValidationFailedException(GlobalExceptionHandler.handleValidationResults(validationResult));
         }
@@ -94,4 +105,64 @@ public class ProductController {
                         productService.addCollectedProduct(productDTO)
                 ), HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    /**
+     * Endpoint for adding a batch of collected products.
+     * This method validates the incoming {@link CollectedProductsRequestDTO} using {@link Valid} annotation.
+     * If validation fails, it throws a {@link RequestDataValidationFailedException}.
+     * Otherwise, it delegates the operation to {@link ProductService#addCollectedProducts(List)}.
+     *
+     * @param collectedProductsRequestDTO The {@link CollectedProductsRequestDTO} containing the collected products.
+     * @param validationResult            The result of validation performed by Spring's {@link BindingResult}.
+     * @return A {@link ResponseEntity} containing a success message and the updated harvest rate for every entry if the operation is successful.
+     * @throws RequestDataValidationFailedException If the incoming data fails validation.
+     * @throws NotFoundException                    If any product specified in the batch is not found.
+     * @throws ServiceOverloadedException           If the batch cannot be accepted because the service is overloaded.
+     */
+    @Operation(summary = "Add a batch of collected products by user")
+    @PostMapping("/add-collected-products")
+    public ResponseEntity<SuccessDTO<List<HarvestRateDTO>>> addCollectedProducts(
+            @Valid @RequestBody CollectedProductsRequestDTO collectedProductsRequestDTO,
+            BindingResult validationResult
+    ) throws RequestDataValidationFailedException, NotFoundException, ServiceOverloadedException {
+        if (validationResult.hasErrors()) {
+            throw new RequestDataValidationFailedException(GlobalExceptionHandler.handleValidationResults(validationResult));
+        }
+        return new ResponseEntity<>(
+                new SuccessDTO<>(
+                        HttpStatus.OK.value(),
+                        "add",
+                        productService.addCollectedProducts(collectedProductsRequestDTO.products())
+                ), HttpStatus.OK);
+    }
+
+    /**
+     * Endpoint for browsing the current user's own collection history page by page.
+     * This method validates the incoming {@link RecordHistoryRequestDTO} using {@link Valid} annotation.
+     * If validation fails, it throws a {@link RequestDataValidationFailedException}.
+     * Otherwise, it delegates to {@link RecordService#getOwnRecordHistory(RecordHistoryRequestDTO)}.
+     *
+     * @param recordHistoryRequestDTO The {@link RecordHistoryRequestDTO} containing the optional product name, page size,
+     *                                and the continuation token returned with the previous page.
+     * @param validationResult        The result of validation performed by Spring's {@link BindingResult}.
+     * @return A {@link ResponseEntity} containing the records of the page and the continuation token of the next page.
+     * @throws RequestDataValidationFailedException If the incoming data or the continuation token fails validation.
+     * @throws NotFoundException                    If the product specified in the recordHistoryRequestDTO is not found.
+     */
+    @Operation(summary = "Gets a page of the user's own collection history")
+    @GetMapping("/history")
+    public ResponseEntity<SuccessDTO<RecordHistoryPageDTO>> getOwnRecordHistory(
+            @Valid @RequestBody RecordHistoryRequestDTO recordHistoryRequestDTO,
+            BindingResult validationResult
+    ) throws RequestDataValidationFailedException, NotFoundException {
+        if (validationResult.hasErrors()) {
+            throw new RequestDataValidationFailedException(GlobalExceptionHandler.handleValidationResults(validationResult));
+        }
+        return new ResponseEntity<>(
+                new SuccessDTO<>(
+                        HttpStatus.OK.value(),
+                        "get history",
+                        recordService.getOwnRecordHistory(recordHistoryRequestDTO)
+                ), HttpStatus.OK);
+    }
+}
@@ -1,6 +1,7 @@
 package com.lofominhili.farmflow.dto.EntityDTO;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.lofominhili.farmflow.utils.HarvestPeriod;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -16,6 +17,9 @@ public record HarvestRateDTO(
         @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
         Integer amount,
 
+        @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+        HarvestPeriod period,
+
         @JsonProperty(access = JsonProperty.Access.READ_ONLY)
         Integer left
 ) {
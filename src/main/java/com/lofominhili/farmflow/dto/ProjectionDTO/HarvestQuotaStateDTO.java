@@ -0,0 +1,13 @@
+package com.lofominhili.farmflow.dto.ProjectionDTO;
+
+import java.time.LocalDate;
+
+public interface HarvestQuotaStateDTO {
+    Integer getAmount();
+
+    Integer getRate();
+
+    String getPeriod();
+
+    LocalDate getPeriodStart();
+}
@@ -0,0 +1,12 @@
+package com.lofominhili.farmflow.dto.ProjectionDTO;
+
+import com.lofominhili.farmflow.utils.Measure;
+
+public record ProductTotalDTO(
+        String productName,
+
+        Long amount,
+
+        Measure measure
+) {
+}
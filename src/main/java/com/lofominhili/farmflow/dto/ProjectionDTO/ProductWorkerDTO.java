@@ -0,0 +1,8 @@
+package com.lofominhili.farmflow.dto.ProjectionDTO;
+
+public record ProductWorkerDTO(
+        String productName,
+
+        String email
+) {
+}
@@ -0,0 +1,14 @@
+package com.lofominhili.farmflow.dto.ProjectionDTO;
+
+import com.lofominhili.farmflow.utils.Measure;
+
+public record ProductWorkerTotalDTO(
+        String productName,
+
+        String email,
+
+        Long amount,
+
+        Measure measure
+) {
+}
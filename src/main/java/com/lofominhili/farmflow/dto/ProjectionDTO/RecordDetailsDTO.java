@@ -0,0 +1,24 @@
+package com.lofominhili.farmflow.dto.ProjectionDTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.lofominhili.farmflow.utils.Measure;
+
+import java.time.LocalDate;
+
+public record RecordDetailsDTO(
+        Long id,
+
+        LocalDate date,
+
+        @JsonProperty(value = "product_name")
+        String productName,
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        Measure measure,
+
+        String email,
+
+        Integer amount
+) {
+}
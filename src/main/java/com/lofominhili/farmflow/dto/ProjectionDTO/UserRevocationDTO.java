@@ -0,0 +1,10 @@
+package com.lofominhili.farmflow.dto.ProjectionDTO;
+
+public record UserRevocationDTO(
+        Long id,
+
+        Boolean fired,
+
+        Integer tokenVersion
+) {
+}
@@ -0,0 +1,13 @@
+package com.lofominhili.farmflow.dto.RequestDTO;
+
+import com.lofominhili.farmflow.dto.EntityDTO.ProductDTO;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record CollectedProductsRequestDTO(
+        @NotEmpty(message = "Products cannot be empty!")
+        List<@Valid ProductDTO> products
+) {
+}
@@ -0,0 +1,25 @@
+package com.lofominhili.farmflow.dto.RequestDTO;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.lofominhili.farmflow.utils.ExportFormat;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+public record RecordExportRequestDTO(
+        @NotNull(message = "Begin date cannot be null!")
+        LocalDate begin,
+
+        @NotNull(message = "End date cannot be null!")
+        LocalDate end,
+
+        @JsonProperty(value = "product_name")
+        String productName,
+
+        @Email(message = "Email address must be in the format user@example.com")
+        String email,
+
+        ExportFormat format
+) {
+}
@@ -0,0 +1,22 @@
+package com.lofominhili.farmflow.dto.RequestDTO;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record RecordHistoryRequestDTO(
+        @JsonProperty(value = "product_name")
+        String productName,
+
+        @Email(message = "Email address must be in the format user@example.com")
+        String email,
+
+        @JsonProperty(value = "page_size")
+        @Min(value = 1, message = "Page size must be at least 1!")
+        @Max(value = 500, message = "Page size must be at most 500!")
+        Integer pageSize,
+
+        String continuation
+) {
+}
@@ -0,0 +1,24 @@
+package com.lofominhili.farmflow.dto.ResponseDTO;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record QuotaProgressDTO(
+        @JsonProperty(value = "product_name")
+        String productName,
+
+        String measure,
+
+        Integer collected,
+
+        Integer left
+) {
+    /**
+     * Merges a later progress update of the same product into this one.
+     *
+     * @param later The later update.
+     * @return An update holding the amounts collected in both updates and the amount left after the later one.
+     */
+    public QuotaProgressDTO merge(QuotaProgressDTO later) {
+        return new QuotaProgressDTO(productName, measure, collected + later.collected(), later.left());
+    }
+}
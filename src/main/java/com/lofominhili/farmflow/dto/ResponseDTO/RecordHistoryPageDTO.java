@@ -0,0 +1,12 @@
+package com.lofominhili.farmflow.dto.ResponseDTO;
+
+import com.lofominhili.farmflow.dto.ProjectionDTO.RecordDetailsDTO;
+
+import java.util.List;
+
+public record RecordHistoryPageDTO(
+        List<RecordDetailsDTO> records,
+
+        String continuation
+) {
+}
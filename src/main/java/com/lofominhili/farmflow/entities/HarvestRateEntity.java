@@ -1,20 +1,34 @@
 package com.lofominhili.farmflow.entities;
 
+import com.lofominhili.farmflow.utils.HarvestPeriod;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.LocalDate;
+
 @Entity
 @Table(name = "_harvest_rate")
 @Data
 public class HarvestRateEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "harvest_rate_seq")
+    @SequenceGenerator(name = "harvest_rate_seq", sequenceName = "_harvest_rate_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private ProductEntity product;
 
     @Column(name = "amount")
     private Integer amount;
+
+    @Column(name = "rate")
+    private Integer rate;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(name = "period")
+    private HarvestPeriod period;
+
+    @Column(name = "period_start")
+    private LocalDate periodStart;
 }
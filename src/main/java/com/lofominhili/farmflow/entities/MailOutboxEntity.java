@@ -0,0 +1,46 @@
+package com.lofominhili.farmflow.entities;
+
+import com.lofominhili.farmflow.utils.MailStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "_mail_outbox")
+@Data
+public class MailOutboxEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_outbox_seq")
+    @SequenceGenerator(name = "mail_outbox_seq", sequenceName = "_mail_outbox_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "recipient")
+    private String recipient;
+
+    @Column(name = "subject")
+    private String subject;
+
+    @Column(name = "body")
+    private String body;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(name = "status")
+    private MailStatus status;
+
+    @Column(name = "attempts")
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
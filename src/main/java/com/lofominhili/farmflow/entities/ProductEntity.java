@@ -14,7 +14,8 @@ import java.time.LocalDate;
 @Data
 public class ProductEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "_product_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -0,0 +1,30 @@
+package com.lofominhili.farmflow.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "_record_daily_rollup")
+@IdClass(RecordDailyRollupId.class)
+@Data
+public class RecordDailyRollupEntity {
+    @Id
+    @Column(name = "date")
+    private LocalDate date;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "amount")
+    private Long amount;
+
+    @Column(name = "record_count")
+    private Long recordCount;
+}
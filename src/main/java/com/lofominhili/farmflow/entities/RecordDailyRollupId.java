@@ -0,0 +1,19 @@
+package com.lofominhili.farmflow.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordDailyRollupId implements Serializable {
+    private LocalDate date;
+
+    private Long productId;
+
+    private Long userId;
+}
@@ -13,20 +13,21 @@ import java.time.LocalDate;
 @Data
 public class RecordEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "record_seq")
+    @SequenceGenerator(name = "record_seq", sequenceName = "_record_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private ProductEntity product;
 
     @Column(name = "amount")
     private Integer amount;
 
-    @Column(name = "date")
+    @Column(name = "date", nullable = false)
     @CreatedDate
     private LocalDate date;
 }
@@ -0,0 +1,24 @@
+package com.lofominhili.farmflow.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "_revoked_token")
+@Data
+public class RevokedTokenEntity {
+    @Id
+    @Column(name = "token_id")
+    private String tokenId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+}
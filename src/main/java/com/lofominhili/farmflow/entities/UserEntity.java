@@ -15,7 +15,8 @@ import java.util.List;
 @Data
 public class UserEntity implements UserDetails {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "_user_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -44,6 +45,9 @@ public class UserEntity implements UserDetails {
     @Column(name = "role")
     private Role role;
 
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority(role.toString()));
@@ -0,0 +1,7 @@
+package com.lofominhili.farmflow.exceptions;
+
+public class ServiceOverloadedException extends Exception {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -8,6 +8,8 @@ import org.mapstruct.MappingConstants;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface HarvestRateMapper {
+    @Mapping(source = "amount", target = "rate")
+    @Mapping(target = "periodStart", ignore = true)
     HarvestRateEntity toEntity(HarvestRateDTO harvestRateDTO);
 
     @Mapping(source = "product.name", target = "productName")
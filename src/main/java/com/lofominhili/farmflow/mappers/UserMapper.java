@@ -9,6 +9,7 @@ import org.mapstruct.MappingConstants;
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface UserMapper {
     @Mapping(target = "role", constant = "USER")
+    @Mapping(target = "tokenVersion", ignore = true)
     UserEntity toEntity(UserDTO userDTO);
 
     UserDTO toDto(UserEntity user);
@@ -1,13 +1,47 @@
 package com.lofominhili.farmflow.repository;
 
+import com.lofominhili.farmflow.dto.ProjectionDTO.HarvestQuotaStateDTO;
 import com.lofominhili.farmflow.entities.HarvestRateEntity;
-import com.lofominhili.farmflow.entities.ProductEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.Optional;
 
 @Repository
 public interface HarvestRateRepository extends JpaRepository<HarvestRateEntity, Long> {
-    Optional<HarvestRateEntity> findByProduct(ProductEntity product);
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE _harvest_rate
+            SET amount       = CASE
+                                   WHEN period_start > :periodStart THEN amount
+                                   WHEN period_start < :periodStart THEN GREATEST(rate - :consumed, 0)
+                                   ELSE GREATEST(amount - :consumed, 0)
+                END,
+                period_start = GREATEST(period_start, :periodStart)
+            WHERE product_id = :productId
+            RETURNING amount, rate, period, period_start AS "periodStart"
+            """)
+    Optional<HarvestQuotaStateDTO> consume(@Param("productId") Long productId,
+                                           @Param("periodStart") LocalDate periodStart,
+                                           @Param("consumed") long consumed);
+
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            INSERT INTO _harvest_rate (product_id, amount, rate, period, period_start)
+            VALUES (:productId, :rate, :rate, :period, :periodStart)
+            ON CONFLICT (product_id) DO UPDATE
+            SET amount       = EXCLUDED.amount,
+                rate         = EXCLUDED.rate,
+                period       = EXCLUDED.period,
+                period_start = EXCLUDED.period_start
+            RETURNING *
+            """)
+    HarvestRateEntity upsert(@Param("productId") Long productId,
+                             @Param("rate") int rate,
+                             @Param("period") String period,
+                             @Param("periodStart") LocalDate periodStart);
 }
@@ -0,0 +1,31 @@
+package com.lofominhili.farmflow.repository;
+
+import com.lofominhili.farmflow.entities.MailOutboxEntity;
+import com.lofominhili.farmflow.utils.MailStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutboxEntity, Long> {
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE _mail_outbox
+            SET next_attempt_at = :leasedUntil
+            WHERE id IN (SELECT id
+                         FROM _mail_outbox
+                         WHERE status = 'PENDING'
+                           AND next_attempt_at <= :now
+                         ORDER BY next_attempt_at
+                         LIMIT :limit FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """)
+    List<MailOutboxEntity> claimDue(@Param("now") Instant now, @Param("leasedUntil") Instant leasedUntil, @Param("limit") int limit);
+
+    long countByStatus(MailStatus status);
+}
@@ -2,6 +2,9 @@ package com.lofominhili.farmflow.repository;
 
 import com.lofominhili.farmflow.entities.ProductEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +12,8 @@ import java.util.Optional;
 @Repository
 public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
     Optional<ProductEntity> findByName(String name);
+
+    @Modifying
+    @Query("update ProductEntity p set p.amount = coalesce(p.amount, 0) + :amount where p.id = :id")
+    void increaseAmount(@Param("id") Long id, @Param("amount") int amount);
 }
@@ -0,0 +1,97 @@
+package com.lofominhili.farmflow.repository;
+
+import com.lofominhili.farmflow.dto.ProjectionDTO.ProductTotalDTO;
+import com.lofominhili.farmflow.dto.ProjectionDTO.ProductWorkerDTO;
+import com.lofominhili.farmflow.dto.ProjectionDTO.ProductWorkerTotalDTO;
+import com.lofominhili.farmflow.entities.RecordDailyRollupEntity;
+import com.lofominhili.farmflow.entities.RecordDailyRollupId;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface RecordDailyRollupRepository extends JpaRepository<RecordDailyRollupEntity, RecordDailyRollupId> {
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO _record_daily_rollup (date, product_id, user_id, amount, record_count)
+            VALUES (:date, :productId, :userId, :amount, :recordCount)
+            ON CONFLICT (date, product_id, user_id) DO UPDATE
+            SET amount       = _record_daily_rollup.amount + EXCLUDED.amount,
+                record_count = _record_daily_rollup.record_count + EXCLUDED.record_count
+            """)
+    void increment(@Param("date") LocalDate date,
+                   @Param("productId") Long productId,
+                   @Param("userId") Long userId,
+                   @Param("amount") long amount,
+                   @Param("recordCount") long recordCount);
+
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.ProductTotalDTO(p.name, sum(r.amount), p.measure)
+            from RecordDailyRollupEntity r join ProductEntity p on p.id = r.productId
+            where r.date between :begin and :end
+            group by p.id, p.name, p.measure
+            order by p.name
+            """)
+    List<ProductTotalDTO> sumAmountByProduct(@Param("begin") LocalDate begin, @Param("end") LocalDate end);
+
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.ProductTotalDTO(p.name, sum(r.amount), p.measure)
+            from RecordDailyRollupEntity r join ProductEntity p on p.id = r.productId
+            where r.userId = :userId and r.date between :begin and :end
+            group by p.id, p.name, p.measure
+            order by p.name
+            """)
+    List<ProductTotalDTO> sumAmountByProductForUser(@Param("userId") Long userId, @Param("begin") LocalDate begin, @Param("end") LocalDate end);
+
+    @Query("""
+            select distinct new com.lofominhili.farmflow.dto.ProjectionDTO.ProductWorkerDTO(p.name, u.email)
+            from RecordDailyRollupEntity r
+            join ProductEntity p on p.id = r.productId
+            join UserEntity u on u.id = r.userId
+            where r.date between :begin and :end
+            """)
+    List<ProductWorkerDTO> findProductWorkers(@Param("begin") LocalDate begin, @Param("end") LocalDate end);
+
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.ProductWorkerTotalDTO(p.name, u.email, sum(r.amount), p.measure)
+            from RecordDailyRollupEntity r
+            join ProductEntity p on p.id = r.productId
+            join UserEntity u on u.id = r.userId
+            where r.date = :date and coalesce(u.fired, false) = false
+            group by p.id, p.name, p.measure, u.id, u.email
+            order by u.email, p.name
+            """)
+    List<ProductWorkerTotalDTO> sumAmountByWorkerAndProduct(@Param("date") LocalDate date);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.ProductTotalDTO(p.name, sum(r.amount), p.measure)
+            from RecordDailyRollupEntity r join ProductEntity p on p.id = r.productId
+            where r.userId = :userId and r.date between :begin and :end
+            group by p.id, p.name, p.measure
+            order by p.name
+            """)
+    Stream<ProductTotalDTO> streamAmountByProductForUser(@Param("userId") Long userId, @Param("begin") LocalDate begin, @Param("end") LocalDate end);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.ProductWorkerTotalDTO(p.name, u.email, sum(r.amount), p.measure)
+            from RecordDailyRollupEntity r
+            join ProductEntity p on p.id = r.productId
+            join UserEntity u on u.id = r.userId
+            where r.date between :begin and :end
+            group by p.id, p.name, p.measure, u.id, u.email
+            order by p.name
+            """)
+    Stream<ProductWorkerTotalDTO> streamAmountByProductAndWorker(@Param("begin") LocalDate begin, @Param("end") LocalDate end);
+}
@@ -1,14 +1,100 @@
 package com.lofominhili.farmflow.repository;
 
+import com.lofominhili.farmflow.dto.ProjectionDTO.RecordDetailsDTO;
 import com.lofominhili.farmflow.entities.RecordEntity;
-import com.lofominhili.farmflow.entities.UserEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface RecordRepository extends JpaRepository<RecordEntity, Long> {
-    List<RecordEntity> findAllByUser(UserEntity user);
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.RecordDetailsDTO(r.id, r.date, p.name, p.measure, u.email, r.amount)
+            from RecordEntity r
+            join r.product p
+            join r.user u
+            where r.date between :begin and :end
+              and (:productId is null or p.id = :productId)
+              and (:userId is null or u.id = :userId)
+            order by r.date, r.id
+            """)
+    Stream<RecordDetailsDTO> streamForExport(@Param("begin") LocalDate begin,
+                                            @Param("end") LocalDate end,
+                                            @Param("productId") Long productId,
+                                            @Param("userId") Long userId);
+
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.RecordDetailsDTO(r.id, r.date, p.name, p.measure, u.email, r.amount)
+            from RecordEntity r
+            join r.product p
+            join r.user u
+            where r.date <= :date and (r.date < :date or r.id < :id)
+            order by r.date desc, r.id desc
+            """)
+    List<RecordDetailsDTO> findHistory(@Param("date") LocalDate date, @Param("id") Long id, Limit limit);
+
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.RecordDetailsDTO(r.id, r.date, p.name, p.measure, u.email, r.amount)
+            from RecordEntity r
+            join r.product p
+            join r.user u
+            where u.id = :userId
+              and r.date <= :date and (r.date < :date or r.id < :id)
+            order by r.date desc, r.id desc
+            """)
+    List<RecordDetailsDTO> findHistoryByUser(@Param("userId") Long userId,
+                                             @Param("date") LocalDate date,
+                                             @Param("id") Long id,
+                                             Limit limit);
+
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.RecordDetailsDTO(r.id, r.date, p.name, p.measure, u.email, r.amount)
+            from RecordEntity r
+            join r.product p
+            join r.user u
+            where p.id = :productId
+              and r.date <= :date and (r.date < :date or r.id < :id)
+            order by r.date desc, r.id desc
+            """)
+    List<RecordDetailsDTO> findHistoryByProduct(@Param("productId") Long productId,
+                                                @Param("date") LocalDate date,
+                                                @Param("id") Long id,
+                                                Limit limit);
+
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.RecordDetailsDTO(r.id, r.date, p.name, p.measure, u.email, r.amount)
+            from RecordEntity r
+            join r.product p
+            join r.user u
+            where u.id = :userId and p.id = :productId
+              and r.date <= :date and (r.date < :date or r.id < :id)
+            order by r.date desc, r.id desc
+            """)
+    List<RecordDetailsDTO> findHistoryByUserAndProduct(@Param("userId") Long userId,
+                                                       @Param("productId") Long productId,
+                                                       @Param("date") LocalDate date,
+                                                       @Param("id") Long id,
+                                                       Limit limit);
+
+    @Transactional
+    @Query(nativeQuery = true, value = "SELECT _record_create_partition(:month)")
+    Boolean createPartition(@Param("month") LocalDate month);
+
+    @Transactional
+    @Query(nativeQuery = true, value = "SELECT * FROM _record_detach_partitions_before(:cutoff, :dropDetached)")
+    List<String> detachPartitionsBefore(@Param("cutoff") LocalDate cutoff, @Param("dropDetached") boolean dropDetached);
 
 }
@@ -0,0 +1,25 @@
+package com.lofominhili.farmflow.repository;
+
+import com.lofominhili.farmflow.entities.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+    @Query("select t.tokenId from RevokedTokenEntity t where t.expiresAt > :now")
+    List<String> findActiveTokenIds(Instant now);
+
+    @Query("select t.tokenId from RevokedTokenEntity t where t.revokedAt >= :since and t.expiresAt > :now")
+    List<String> findTokenIdsRevokedSince(Instant since, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedTokenEntity t where t.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
@@ -1,12 +1,25 @@
 package com.lofominhili.farmflow.repository;
 
+import com.lofominhili.farmflow.dto.ProjectionDTO.UserRevocationDTO;
 import com.lofominhili.farmflow.entities.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmail(String username);
+
+    @Query("select u.id from UserEntity u where u.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
+    @Query("""
+            select new com.lofominhili.farmflow.dto.ProjectionDTO.UserRevocationDTO(u.id, u.fired, u.tokenVersion)
+            from UserEntity u
+            where u.fired = true or u.tokenVersion > 0
+            """)
+    List<UserRevocationDTO> findRevocations();
 }
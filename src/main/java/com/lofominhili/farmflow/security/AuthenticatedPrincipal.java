@@ -0,0 +1,101 @@
+package com.lofominhili.farmflow.security;
+
+import com.lofominhili.farmflow.entities.UserEntity;
+import com.lofominhili.farmflow.services.JwtService.JwtServiceImpl;
+import com.lofominhili.farmflow.services.JwtService.VerifiedToken;
+import com.lofominhili.farmflow.utils.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Slim immutable principal of an authenticated request.
+ * Unlike {@link UserEntity} it carries only what authorization needs and never holds the password hash,
+ * which makes it safe to keep in {@link PrincipalCache}.
+ *
+ * @author daniel
+ */
+public record AuthenticatedPrincipal(
+        Long id,
+
+        String email,
+
+        Role role,
+
+        boolean fired
+) implements UserDetails {
+
+    public static AuthenticatedPrincipal from(UserEntity user) {
+        return new AuthenticatedPrincipal(user.getId(), user.getEmail(), user.getRole(), Boolean.TRUE.equals(user.getFired()));
+    }
+
+    /**
+     * Builds a principal purely from the claims of a verified token.
+     * A token is only ever issued to a user who is not blocked, so the principal is never marked as fired;
+     * tokens of blocked users are rejected by {@link TokenRevocationList} instead.
+     *
+     * @param token The verified token.
+     * @return The principal, or an empty {@link Optional} if the token lacks the id or role claim.
+     */
+    public static Optional<AuthenticatedPrincipal> fromClaims(VerifiedToken token) {
+        Object id = token.claims().get(JwtServiceImpl.CLAIM_USER_ID);
+        Object role = token.claims().get(JwtServiceImpl.CLAIM_ROLE);
+        if (!(id instanceof Number userId) || !(role instanceof String roleName)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new AuthenticatedPrincipal(userId.longValue(), token.email(), Role.valueOf(roleName), false));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the token version embedded in a verified token, or {@code 0} for tokens issued without one.
+     *
+     * @param token The verified token.
+     * @return The token version.
+     */
+    public static int tokenVersionOf(VerifiedToken token) {
+        return token.claims().get(JwtServiceImpl.CLAIM_TOKEN_VERSION) instanceof Number version ? version.intValue() : 0;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.toString()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !fired;
+    }
+}
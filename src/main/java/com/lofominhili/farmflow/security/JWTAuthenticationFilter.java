@@ -2,28 +2,35 @@ package com.lofominhili.farmflow.security;
 
 import com.lofominhili.farmflow.exceptions.TokenValidationException;
 import com.lofominhili.farmflow.services.JwtService.JwtService;
+import com.lofominhili.farmflow.services.JwtService.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
 
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final RevokedTokenStore revokedTokenStore;
 
     @Override
     protected void doFilterInternal(
@@ -36,25 +43,36 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
             return;
         }
-        String email = jwtService.extractEmail(token);
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
-            try {
-                if (jwtService.isTokenValid(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            } catch (TokenValidationException e) {
-                throw new RuntimeException(e);
-            }
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = jwtService.verify(token);
+        } catch (TokenValidationException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (SecurityContextHolder.getContext().getAuthentication() == null && !revokedTokenStore.isRevoked(verifiedToken.tokenId())) {
+            resolvePrincipal(verifiedToken)
+                    .filter(UserDetails::isEnabled)
+                    .filter(principal -> !tokenRevocationList.isRevoked(principal.id(), AuthenticatedPrincipal.tokenVersionOf(verifiedToken)))
+                    .ifPresent(userDetails -> {
+                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                        );
+                        authToken.setDetails(
+                                new WebAuthenticationDetailsSource().buildDetails(request)
+                        );
+                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                    });
         }
         filterChain.doFilter(request, response);
     }
+
+    private Optional<AuthenticatedPrincipal> resolvePrincipal(VerifiedToken verifiedToken) {
+        if (!stateless) {
+            return principalCache.get(verifiedToken.email());
+        }
+        return AuthenticatedPrincipal.fromClaims(verifiedToken);
+    }
 }
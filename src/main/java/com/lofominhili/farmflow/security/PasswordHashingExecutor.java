@@ -0,0 +1,163 @@
+package com.lofominhili.farmflow.security;
+
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dedicated, size-limited executor for password hashing.
+ * BCrypt is deliberately slow, so a burst of sign-ins run on request threads would occupy every core
+ * and stall unrelated endpoints. Hashing is therefore confined to {@code threads} worker threads
+ * (half of the cores by default, leaving the rest to other requests) with at most {@code queue-capacity} tasks waiting. Once the queue is full, or a task has waited longer than
+ * {@code max-queue-wait-ms} and its client has most likely given up, the caller is rejected at once
+ * with a {@link ServiceOverloadedException}, which is answered with {@code 503} and a {@code Retry-After} header.
+ * The time tasks spend waiting in the queue and the time they spend hashing are recorded separately,
+ * so the BCrypt work factor can be tuned for the hardware at hand.
+ *
+ * @author daniel
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    @Value("${security.password-hashing.threads:#{T(java.lang.Math).max(1, T(java.lang.Runtime).getRuntime().availableProcessors() / 2)}}")
+    private int threads;
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+    @Value("${security.password-hashing.max-queue-wait-ms:2000}")
+    private long maxQueueWaitMs;
+
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder rejectedTasks = new LongAdder();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the given hashing task on the executor and waits for its result.
+     * Unchecked exceptions thrown by the task are rethrown to the caller unchanged.
+     *
+     * @param task The task that hashes or verifies a password.
+     * @param <T>  The type of the task's result.
+     * @return The result of the task.
+     * @throws ServiceOverloadedException If the queue is full or the task has waited in it for too long.
+     */
+    public <T> T execute(Callable<T> task) throws ServiceOverloadedException {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> run(task, submittedAt));
+        } catch (RejectedExecutionException e) {
+            rejectedTasks.increment();
+            throw new ServiceOverloadedException("Too many sign-in requests are being processed, please retry later!");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting for password hashing!");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ServiceOverloadedException overloaded) {
+                throw overloaded;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveThreads() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks.sum();
+    }
+
+    public long getRejectedTasks() {
+        return rejectedTasks.sum();
+    }
+
+    public long getTotalQueueWaitNanos() {
+        return totalQueueWaitNanos.sum();
+    }
+
+    public long getMaxQueueWaitNanos() {
+        return maxQueueWaitNanos.get();
+    }
+
+    public long getTotalHashNanos() {
+        return totalHashNanos.sum();
+    }
+
+    public long getMaxHashNanos() {
+        return maxHashNanos.get();
+    }
+
+    private <T> T run(Callable<T> task, long submittedAt) throws Exception {
+        long startedAt = System.nanoTime();
+        long queueWait = startedAt - submittedAt;
+        totalQueueWaitNanos.add(queueWait);
+        maxQueueWaitNanos.accumulateAndGet(queueWait, Math::max);
+        if (queueWait > TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs)) {
+            rejectedTasks.increment();
+            throw new ServiceOverloadedException("Too many sign-in requests are being processed, please retry later!");
+        }
+        try {
+            return task.call();
+        } finally {
+            long hash = System.nanoTime() - startedAt;
+            totalHashNanos.add(hash);
+            maxHashNanos.accumulateAndGet(hash, Math::max);
+            completedTasks.increment();
+        }
+    }
+}
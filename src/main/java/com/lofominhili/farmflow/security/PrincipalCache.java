@@ -0,0 +1,99 @@
+package com.lofominhili.farmflow.security;
+
+import com.lofominhili.farmflow.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-based cache of {@link AuthenticatedPrincipal} keyed by email.
+ * It sits in front of {@link UserRepository#findByEmail(String)} so that authenticating a request
+ * does not need a database round trip while the principal is cached.
+ * Entries expire after {@code ttl-seconds}; once the cache holds {@code max-size} entries, expired entries
+ * are purged first and then arbitrary ones until there is room again.
+ * Changes to a user that affect authorization must call {@link #invalidate(String)} so they take effect at once.
+ * This component requires an instance of {@link UserRepository} to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    @Value("${security.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final UserRepository userRepository;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the principal of the user with the given email, loading it from the database on a miss or after expiry.
+     *
+     * @param email The email of the user.
+     * @return The principal, or an empty {@link Optional} if no such user exists.
+     */
+    public Optional<AuthenticatedPrincipal> get(String email) {
+        long now = System.nanoTime();
+        CachedPrincipal cached = principals.get(email);
+        if (cached != null && cached.expiresAt() - now > 0) {
+            hits.incrementAndGet();
+            return Optional.of(cached.principal());
+        }
+        misses.incrementAndGet();
+        Optional<AuthenticatedPrincipal> principal = userRepository.findByEmail(email)
+                .map(AuthenticatedPrincipal::from);
+        principal.ifPresent(loaded -> {
+            makeRoom(now);
+            principals.put(email, new CachedPrincipal(loaded, now + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        });
+        return principal;
+    }
+
+    /**
+     * Evicts the principal of the given user, so the next request reloads it from the database.
+     *
+     * @param email The email of the user.
+     */
+    public void invalidate(String email) {
+        principals.remove(email);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int getSize() {
+        return principals.size();
+    }
+
+    private void makeRoom(long now) {
+        if (principals.size() < maxSize) {
+            return;
+        }
+        principals.values().removeIf(cached -> cached.expiresAt() - now <= 0);
+        Iterator<String> emails = principals.keySet().iterator();
+        while (principals.size() >= maxSize && emails.hasNext()) {
+            emails.next();
+            emails.remove();
+        }
+    }
+
+    private record CachedPrincipal(AuthenticatedPrincipal principal, long expiresAt) {
+    }
+}
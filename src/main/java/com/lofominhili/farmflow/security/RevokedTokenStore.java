@@ -0,0 +1,130 @@
+package com.lofominhili.farmflow.security;
+
+import com.lofominhili.farmflow.entities.RevokedTokenEntity;
+import com.lofominhili.farmflow.repository.RevokedTokenRepository;
+import com.lofominhili.farmflow.services.JwtService.VerifiedToken;
+import com.lofominhili.farmflow.utils.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store of individually revoked tokens, keyed by the token id ({@code jti}).
+ * Revoked tokens are persisted in {@code _revoked_token}, and a {@link BloomFilter} of their ids is kept in memory
+ * in front of the table: almost every request carries a token that was never revoked, and for such a token
+ * the filter answers "definitely not revoked" without touching the database. Only the rare positive answers,
+ * true or false, are confirmed with a primary key lookup.
+ * The filter is built at startup, picks up tokens revoked on other nodes every {@code jwt.revocation.refresh-ms},
+ * and is rebuilt from scratch every {@code jwt.revoked-tokens.prune-ms} after expired tokens have been deleted,
+ * since a Bloom filter cannot forget entries.
+ * This component requires an instance of {@link RevokedTokenRepository} to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevokedTokenStore {
+
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    @Value("${jwt.revoked-tokens.expected-size:100000}")
+    private long expectedSize;
+    @Value("${jwt.revoked-tokens.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final AtomicLong filterRejections = new AtomicLong();
+    private final AtomicLong databaseLookups = new AtomicLong();
+
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync;
+
+    /**
+     * Checks whether the token with the given id has been revoked.
+     * Tokens without an id were issued before tokens could be revoked individually and are never reported as revoked.
+     *
+     * @param tokenId The id of the token, may be {@code null}.
+     * @return {@code true} if the token has been revoked, {@code false} otherwise.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        if (!filter.mightContain(tokenId)) {
+            filterRejections.incrementAndGet();
+            return false;
+        }
+        databaseLookups.incrementAndGet();
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    /**
+     * Revokes the given token. The token is persisted first and then added to the in-memory filter.
+     *
+     * @param token  The verified token to revoke; it must carry an id.
+     * @param userId The id of the user the token was issued to.
+     */
+    public void revoke(VerifiedToken token, Long userId) {
+        RevokedTokenEntity revokedToken = new RevokedTokenEntity();
+        revokedToken.setTokenId(token.tokenId());
+        revokedToken.setUserId(userId);
+        revokedToken.setExpiresAt(token.expiresAt());
+        revokedToken.setRevokedAt(Instant.now());
+        revokedTokenRepository.save(revokedToken);
+        filter.put(token.tokenId());
+    }
+
+    /**
+     * Builds a new filter from every revoked token that has not expired yet and swaps it in.
+     * Tokens revoked while the filter was being built are picked up right after the swap.
+     */
+    @PostConstruct
+    public void rebuild() {
+        Instant start = Instant.now();
+        List<String> tokenIds = revokedTokenRepository.findActiveTokenIds(start);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedSize, 2L * tokenIds.size()), falsePositiveRate);
+        tokenIds.forEach(rebuilt::put);
+        filter = rebuilt;
+        lastSync = start;
+        sync();
+    }
+
+    /**
+     * Adds tokens revoked since the previous synchronization, including those revoked on other nodes, to the filter.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:30000}", initialDelayString = "${jwt.revocation.refresh-ms:30000}")
+    public void sync() {
+        Instant start = Instant.now();
+        revokedTokenRepository.findTokenIdsRevokedSince(lastSync.minus(SYNC_OVERLAP), start)
+                .forEach(filter::put);
+        lastSync = start;
+    }
+
+    /**
+     * Deletes revoked tokens that have expired anyway and rebuilds the filter without them.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revoked-tokens.prune-ms:3600000}", initialDelayString = "${jwt.revoked-tokens.prune-ms:3600000}")
+    public void prune() {
+        int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+        rebuild();
+        log.info("Pruned {} expired revoked tokens", deleted);
+    }
+
+    public long getFilterRejections() {
+        return filterRejections.get();
+    }
+
+    public long getDatabaseLookups() {
+        return databaseLookups.get();
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lofominhili.farmflow.dto.BasicDTO.ErrorDTO;
 import com.lofominhili.farmflow.repository.UserRepository;
 import com.lofominhili.farmflow.utils.Role;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -44,7 +45,8 @@ public class SecurityConfig {
     };
 
     protected static final String[] ENDPOINTS_ADMIN = {
-            "/api/admin/*",
+            "/api/admin/**",
+            "/actuator/**",
             "/api/auth/register-user",
             "/api/product/register-product"
     };
@@ -62,6 +64,7 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .logout(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> {
+                    auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     auth.requestMatchers(ENDPOINTS_WHITELIST).permitAll();
                     auth.requestMatchers(ENDPOINTS_ADMIN).hasAuthority(Role.ADMIN.toString());
                     auth.anyRequest().authenticated();
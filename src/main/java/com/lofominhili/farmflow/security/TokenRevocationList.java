@@ -0,0 +1,85 @@
+package com.lofominhili.farmflow.security;
+
+import com.lofominhili.farmflow.dto.ProjectionDTO.UserRevocationDTO;
+import com.lofominhili.farmflow.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact in-memory list of users whose tokens were revoked all at once, either by blocking the user
+ * or by revoking all of the user's sessions.
+ * For every user whose tokens were revoked it keeps the lowest token version that is still accepted:
+ * a token carrying an older version is rejected, and every token of a blocked user is rejected.
+ * Users without revoked tokens are not stored at all, so the list stays small.
+ * The list is seeded from the database at startup and periodically merged with it,
+ * so revocations made on other nodes reach this node within {@code jwt.revocation.refresh-ms}.
+ * Entries only ever grow, so a refresh can never undo a revocation made locally in the meantime.
+ * This component requires an instance of {@link UserRepository} to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+    private static final int ALL_VERSIONS = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, Integer> minimumVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Loads revoked users from the database at startup and then on a fixed delay.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:30000}", initialDelayString = "${jwt.revocation.refresh-ms:30000}")
+    public void refresh() {
+        for (UserRevocationDTO revocation : userRepository.findRevocations()) {
+            if (Boolean.TRUE.equals(revocation.fired())) {
+                revokeAll(revocation.id());
+            } else {
+                revokeVersionsBefore(revocation.id(), revocation.tokenVersion());
+            }
+        }
+    }
+
+    /**
+     * Checks whether a token of the given user with the given version has been revoked.
+     *
+     * @param userId       The id of the user the token was issued to.
+     * @param tokenVersion The token version embedded in the token.
+     * @return {@code true} if the token must be rejected, {@code false} otherwise.
+     */
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Integer minimumVersion = minimumVersions.get(userId);
+        return minimumVersion != null && tokenVersion < minimumVersion;
+    }
+
+    /**
+     * Revokes every token of the given user, issued or yet to be issued.
+     *
+     * @param userId The id of the user.
+     */
+    public void revokeAll(Long userId) {
+        minimumVersions.put(userId, ALL_VERSIONS);
+    }
+
+    /**
+     * Revokes every token of the given user whose version is lower than the given one.
+     *
+     * @param userId       The id of the user.
+     * @param tokenVersion The lowest token version that is still accepted.
+     */
+    public void revokeVersionsBefore(Long userId, int tokenVersion) {
+        minimumVersions.merge(userId, tokenVersion, Math::max);
+    }
+
+    public int getSize() {
+        return minimumVersions.size();
+    }
+}
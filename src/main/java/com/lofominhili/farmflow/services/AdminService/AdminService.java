@@ -3,11 +3,19 @@ package com.lofominhili.farmflow.services.AdminService;
 import com.lofominhili.farmflow.dto.EntityDTO.HarvestRateDTO;
 import com.lofominhili.farmflow.dto.EntityDTO.RatingDTO;
 import com.lofominhili.farmflow.exceptions.NotFoundException;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface AdminService {
     void rate(RatingDTO rating) throws NotFoundException;
 
     void block(String email) throws NotFoundException;
 
+    void revokeSessions(String email) throws NotFoundException;
+
     void setHarvestRate(HarvestRateDTO harvestRate) throws NotFoundException;
+
+    void invalidateProductCatalog();
+
+    SseEmitter streamQuotaProgress() throws ServiceOverloadedException;
 }
@@ -1,23 +1,29 @@
 package com.lofominhili.farmflow.services.AdminService;
 
+import com.lofominhili.farmflow.cache.ProductCatalogCache;
 import com.lofominhili.farmflow.dto.EntityDTO.HarvestRateDTO;
 import com.lofominhili.farmflow.dto.EntityDTO.RatingDTO;
-import com.lofominhili.farmflow.entities.HarvestRateEntity;
 import com.lofominhili.farmflow.entities.ProductEntity;
 import com.lofominhili.farmflow.entities.UserEntity;
 import com.lofominhili.farmflow.exceptions.NotFoundException;
-import com.lofominhili.farmflow.repository.HarvestRateRepository;
-import com.lofominhili.farmflow.repository.ProductRepository;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
 import com.lofominhili.farmflow.repository.UserRepository;
+import com.lofominhili.farmflow.security.PrincipalCache;
+import com.lofominhili.farmflow.security.TokenRevocationList;
+import com.lofominhili.farmflow.services.ProductService.HarvestQuotaTracker;
+import com.lofominhili.farmflow.services.ProductService.QuotaProgressBroadcaster;
+import com.lofominhili.farmflow.utils.HarvestPeriod;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Service implementation of {@link AdminService} for administrative operations.
- * This service provides methods for managing user ratings, blocking user accounts,
- * and setting harvest rates for products.
- * This service requires instances of {@link UserRepository}, {@link ProductRepository},
- * and {@link HarvestRateRepository} to be injected via constructor.
+ * This service provides methods for managing user ratings, blocking user accounts, revoking user sessions,
+ * setting harvest rates for products, invalidating the product catalog cache, and streaming harvest quota progress.
+ * This service requires instances of {@link UserRepository}, {@link ProductCatalogCache},
+ * {@link HarvestQuotaTracker}, {@link QuotaProgressBroadcaster}, {@link PrincipalCache},
+ * and {@link TokenRevocationList} to be injected via constructor.
  *
  * @author daniel
  */
@@ -26,15 +32,18 @@ import org.springframework.stereotype.Service;
 public class AdminServiceImpl implements AdminService {
 
     private final UserRepository userRepository;
-    private final ProductRepository productRepository;
-    private final HarvestRateRepository harvestRateRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final HarvestQuotaTracker harvestQuotaTracker;
+    private final QuotaProgressBroadcaster quotaProgressBroadcaster;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
 
     /**
      * Sets the rating for a user based on the provided {@link RatingDTO}.
      * This method retrieves the user from the user repository based on the email
      * provided in the RatingDTO. If the user is found, their rating is updated
      * to the value specified in the RatingDTO. The updated user entity is then saved
-     * back to the user repository.
+     * back to the user repository, and the user's cached principal is evicted.
      *
      * @param rating The {@link RatingDTO} containing information about the user's email address and rating value.
      *               It should include the user's email and the new rating value.
@@ -47,13 +56,16 @@ public class AdminServiceImpl implements AdminService {
                 .orElseThrow(() -> new NotFoundException("Email not found!"));
         user.setRating(rating.rating());
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
     }
 
     /**
      * Blocks a user account associated with the provided email address.
      * This method retrieves the user from the user repository based on the provided email.
      * If the user is found, their account status is updated to indicate that they are fired or blocked.
-     * The updated user entity is then saved back to the user repository.
+     * The updated user entity is then saved back to the user repository,
+     * the user's cached principal is evicted and all of the user's tokens are revoked,
+     * so the block takes effect on the very next request.
      *
      * @param email The email address of the user whose account is to be blocked.
      *              It should be a valid email address associated with a user account.
@@ -66,27 +78,70 @@ public class AdminServiceImpl implements AdminService {
                 .orElseThrow(() -> new NotFoundException("Email not found!"));
         user.setFired(true);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
+        tokenRevocationList.revokeAll(user.getId());
+    }
+
+    /**
+     * Revokes every token issued to the user associated with the provided email address so far.
+     * This method increments the user's token version, which is embedded in every token issued to the user,
+     * and rejects all tokens carrying an older version. Tokens issued after this call stay valid,
+     * so unlike {@link #block(String)} the user can simply sign in again.
+     *
+     * @param email The email address of the user whose sessions are to be revoked.
+     * @throws NotFoundException If the user specified by the email address is not found in the {@link UserRepository}.
+     *                           This exception indicates that the specified user does not exist.
+     */
+    @Override
+    public void revokeSessions(String email) throws NotFoundException {
+        UserEntity user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new NotFoundException("Email not found!"));
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
+        tokenRevocationList.revokeVersionsBefore(user.getId(), user.getTokenVersion());
     }
 
     /**
      * Sets the harvest rate for a product based on the provided {@link HarvestRateDTO}.
-     * This method retrieves the product from the product repository based on the product name
-     * provided in the HarvestRateDTO. If the product is found, a new HarvestRateEntity is created
-     * and populated with the product and harvest rate amount from the provided HarvestRateDTO.
-     * The created HarvestRateEntity is then saved to the harvest rate repository.
+     * This method retrieves the product from the {@link ProductCatalogCache} based on the product name
+     * provided in the HarvestRateDTO. If the product is found, {@link HarvestQuotaTracker} creates or replaces its only
+     * HarvestRateEntity with the rate and period from the provided HarvestRateDTO, starting with the full rate left
+     * in the current period, and replaces the quota it holds for the product.
      *
      * @param harvestRate The {@link HarvestRateDTO} containing information about the harvest rate to be set.
-     *                    It should include the name of the product and the amount of harvest rate.
-     * @throws NotFoundException If the product specified in the {@link HarvestRateDTO} is not found in the {@link ProductRepository}.
+     *                    It should include the name of the product and the amount of harvest rate,
+     *                    and may include the period of the rate, which defaults to a day.
+     * @throws NotFoundException If the product specified in the {@link HarvestRateDTO} is not found in the product catalog.
      *                           This exception indicates that the specified product does not exist.
      */
     @Override
     public void setHarvestRate(HarvestRateDTO harvestRate) throws NotFoundException {
-        ProductEntity product = productRepository.findByName(harvestRate.productName())
+        ProductEntity product = productCatalogCache.findByName(harvestRate.productName())
                 .orElseThrow(() -> new NotFoundException("Product not found!"));
-        HarvestRateEntity harvestRateEntity = new HarvestRateEntity();
-        harvestRateEntity.setProduct(product);
-        harvestRateEntity.setAmount(harvestRate.amount());
-        harvestRateRepository.save(harvestRateEntity);
+        HarvestPeriod period = harvestRate.period() == null ? HarvestPeriod.DAY : harvestRate.period();
+        harvestQuotaTracker.reset(product.getId(), harvestRate.amount(), period);
+    }
+
+    /**
+     * Drops every cached product and reloads the product catalog from the database.
+     * This method is meant for the rare case when products were changed outside of the application.
+     */
+    @Override
+    public void invalidateProductCatalog() {
+        productCatalogCache.invalidateAll();
+    }
+
+    /**
+     * Subscribes to the harvest quota progress pushed by {@link QuotaProgressBroadcaster}.
+     * The stream starts with the amount left for every product that has a quota, followed by an update
+     * for every product whose collections are stored, holding the collected amount and the amount left.
+     *
+     * @return The {@link SseEmitter} the updates are sent through.
+     * @throws ServiceOverloadedException If the maximum number of subscribers is reached.
+     */
+    @Override
+    public SseEmitter streamQuotaProgress() throws ServiceOverloadedException {
+        return quotaProgressBroadcaster.subscribe();
     }
 }
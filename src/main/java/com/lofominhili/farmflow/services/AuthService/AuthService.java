@@ -3,9 +3,13 @@ package com.lofominhili.farmflow.services.AuthService;
 import com.lofominhili.farmflow.dto.EntityDTO.UserDTO;
 import com.lofominhili.farmflow.dto.RequestDTO.SignInRequest;
 import com.lofominhili.farmflow.exceptions.AuthenticationFailedException;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
+import com.lofominhili.farmflow.exceptions.TokenValidationException;
 
 public interface AuthService {
-    void registerUser(UserDTO request) throws AuthenticationFailedException;
+    void registerUser(UserDTO request) throws AuthenticationFailedException, ServiceOverloadedException;
 
-    String signIn(SignInRequest credentials) throws AuthenticationFailedException;
+    String signIn(SignInRequest credentials) throws AuthenticationFailedException, ServiceOverloadedException;
+
+    void logout(String token) throws TokenValidationException;
 }
@@ -5,23 +5,28 @@ import com.lofominhili.farmflow.dto.EntityDTO.UserDTO;
 import com.lofominhili.farmflow.dto.RequestDTO.SignInRequest;
 import com.lofominhili.farmflow.entities.UserEntity;
 import com.lofominhili.farmflow.exceptions.AuthenticationFailedException;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
+import com.lofominhili.farmflow.exceptions.TokenValidationException;
 import com.lofominhili.farmflow.mappers.UserMapper;
 import com.lofominhili.farmflow.repository.UserRepository;
+import com.lofominhili.farmflow.security.AuthenticatedPrincipal;
+import com.lofominhili.farmflow.security.PasswordHashingExecutor;
+import com.lofominhili.farmflow.security.RevokedTokenStore;
 import com.lofominhili.farmflow.services.JwtService.JwtService;
+import com.lofominhili.farmflow.services.JwtService.VerifiedToken;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 /**
  * Service implementation of {@link AuthService} for authentication-related operations.
- * This service provides methods for user registration and user sign-in.
+ * This service provides methods for user registration, user sign-in and logout.
+ * Password hashing and verification run on the {@link PasswordHashingExecutor} rather than on the request thread,
+ * while user lookups stay on the request thread, so hashing threads never wait for the database.
  * This service requires instances of {@link UserRepository}, {@link PasswordEncoder}, {@link JwtService},
- * {@link UserMapper}, and {@link AuthenticationManager} to be injected via constructor.
+ * {@link UserMapper}, {@link RevokedTokenStore}, and {@link PasswordHashingExecutor} to be injected via constructor.
  *
  * @author daniel
  */
@@ -33,7 +38,15 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final UserMapper userMapper;
-    private final AuthenticationManager authenticationManager;
+    private final RevokedTokenStore revokedTokenStore;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    private String userNotFoundPassword;
+
+    @PostConstruct
+    public void init() {
+        userNotFoundPassword = passwordEncoder.encode("userNotFoundPassword");
+    }
 
     /**
      * Registers a new user with the provided user information.
@@ -45,37 +58,62 @@ public class AuthServiceImpl implements AuthService {
      *                It should include the user's email, password, and any other relevant information.
      * @throws AuthenticationFailedException If a user with the provided email already exists in the repository.
      *                                       This exception indicates a registration failure due to duplicate user credentials.
+     * @throws ServiceOverloadedException    If the password hashing executor is saturated.
      */
     @Override
-    public void registerUser(UserDTO request) throws AuthenticationFailedException {
+    public void registerUser(UserDTO request) throws AuthenticationFailedException, ServiceOverloadedException {
         if (userRepository.findByEmail(request.email()).isPresent()) {
             throw new AuthenticationFailedException("User with prompted credentials already exists");
         }
         UserEntity user = userMapper.toEntity(request);
         user.setFired(false);
-        user.setPassword(passwordEncoder.encode(request.password()));
+        user.setPassword(passwordHashingExecutor.execute(() -> passwordEncoder.encode(request.password())));
         userRepository.save(user);
     }
 
     /**
      * Authenticates a user with the provided sign-in credentials.
-     * This method attempts to authenticate the user using the {@link AuthenticationManager}.
-     * If authentication succeeds, a JWT token is generated using the user's principal details.
+     * This method looks the user up by email on the request thread and verifies the password
+     * on the {@link PasswordHashingExecutor}, so only BCrypt itself runs on the hashing threads.
+     * A password is verified even when no user has the given email, against a dummy hash,
+     * so the response time does not reveal which emails are registered.
+     * If the password matches and the user has not been fired, a JWT token is generated for the user.
      *
      * @param credentials The {@link SignInRequest} containing the user's email and password for authentication.
      * @return A JWT token representing the authenticated user session.
-     * @throws AuthenticationFailedException If authentication fails due to invalid credentials.
+     * @throws AuthenticationFailedException If authentication fails due to invalid credentials or a fired user.
      *                                       This exception indicates a failed sign-in attempt.
+     * @throws ServiceOverloadedException    If the password hashing executor is saturated.
+     */
+    @Override
+    public String signIn(SignInRequest credentials) throws AuthenticationFailedException, ServiceOverloadedException {
+        UserEntity user = userRepository.findByEmail(credentials.email()).orElse(null);
+        String encodedPassword = user == null ? userNotFoundPassword : user.getPassword();
+        boolean matches = passwordHashingExecutor.execute(() -> passwordEncoder.matches(credentials.password(), encodedPassword));
+        if (user == null || !matches) {
+            throw new AuthenticationFailedException("Bad credentials");
+        }
+        if (!user.isEnabled()) {
+            throw new AuthenticationFailedException("User is disabled");
+        }
+        return jwtService.generateToken(user);
+    }
+
+    /**
+     * Logs the current user out by revoking the token the request was authenticated with.
+     * The token is stored in the {@link RevokedTokenStore}, so it is rejected by every node
+     * even though it has not expired yet.
+     *
+     * @param token The JWT token of the current request.
+     * @throws TokenValidationException If the token is invalid or was issued without an id and cannot be revoked.
      */
     @Override
-    public String signIn(SignInRequest credentials) throws AuthenticationFailedException {
-        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(credentials.email(), credentials.password());
-        Authentication authentication;
-        try {
-            authentication = authenticationManager.authenticate(token);
-        } catch (AuthenticationException e) {
-            throw new AuthenticationFailedException(e.getMessage());
+    public void logout(String token) throws TokenValidationException {
+        VerifiedToken verifiedToken = jwtService.verify(token);
+        if (verifiedToken.tokenId() == null) {
+            throw new TokenValidationException("Token cannot be revoked, sign in again to get a new one");
         }
-        return jwtService.generateToken((UserDetails) authentication.getPrincipal());
+        AuthenticatedPrincipal principal = (AuthenticatedPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        revokedTokenStore.revoke(verifiedToken, principal.id());
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,8 @@ import java.util.Map;
 public interface JwtService {
     String extractEmail(String token);
 
+    VerifiedToken verify(String token) throws TokenValidationException;
+
     String generateToken(UserDetails userDetails);
 
     String generateToken(Map<String, Object> extraClaims, UserDetails userDetails);
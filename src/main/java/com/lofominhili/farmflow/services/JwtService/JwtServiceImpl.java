@@ -1,26 +1,44 @@
 package com.lofominhili.farmflow.services.JwtService;
 
+import com.lofominhili.farmflow.entities.UserEntity;
 import com.lofominhili.farmflow.exceptions.TokenValidationException;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 /**
  * Service implementation of {@link JwtService} for JWT (JSON Web Token) operations.
  * This service provides methods for generating, extracting, and validating JWT tokens.
+ * The signing key and the token parser are built once at startup. Every token is parsed and verified once
+ * into an immutable {@link VerifiedToken}, and recently verified tokens are kept in a small bounded cache
+ * until they expire, so repeated requests with the same token do not pay for signature verification again.
+ * Expired tokens are swept from the cache every {@code jwt.verified-token-cache.sweep-ms}. When the cache is full,
+ * it is trimmed to 90% of its size at once, so a cache miss only pays for eviction once every few thousand tokens.
+ * Every token gets a random id ({@code jti}), so it can be revoked individually.
+ * Tokens issued to a {@link UserEntity} also carry the user's id, role and token version,
+ * which is everything the stateless authorization mode needs to authorize a request without the database.
  * This service requires configuration properties for the secret key and token lifetime
  * to be injected via Spring's {@code @Value} annotation.
  *
@@ -32,11 +50,34 @@ public class JwtServiceImpl implements JwtService {
 
     public static final String BEARER_PREFIX = "Bearer ";
     public static final String HEADER_NAME = "Authorization";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
 
     @Value("${jwt.secret_key}")
     private String secretKey;
     @Value("${jwt.access_token.lifetime}")
     private Integer tokenLifetime;
+    @Value("${jwt.verified-token-cache.max-size:10000}")
+    private int verifiedTokenCacheSize;
+
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+    /**
+     * Builds the signing key and the token parser once, after the configuration properties have been injected.
+     */
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        signInKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+    }
 
     /**
      * Retrieves the JWT token from the HTTP request.
@@ -62,7 +103,24 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parse(token).email();
+    }
+
+    /**
+     * Parses the JWT token and verifies its signature and expiration.
+     * A token that has already been verified and has not expired yet is served from the cache.
+     *
+     * @param token The JWT token to verify.
+     * @return The {@link VerifiedToken} holding the token's claims.
+     * @throws TokenValidationException If the token is malformed, its signature is invalid or it has expired.
+     */
+    @Override
+    public VerifiedToken verify(String token) throws TokenValidationException {
+        try {
+            return parse(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new TokenValidationException(e.getMessage());
+        }
     }
 
     /**
@@ -91,6 +149,7 @@ public class JwtServiceImpl implements JwtService {
 
     /**
      * Generates a JWT token for the specified UserDetails with additional claims.
+     * If the user details are a {@link UserEntity}, the user's id, role and token version are embedded as well.
      *
      * @param extraClaims Additional claims to be included in the JWT token.
      * @param userDetails The {@link UserDetails} object representing the user for whom the token is generated.
@@ -98,13 +157,20 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof UserEntity user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().toString());
+            claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        }
         return Jwts
                 .builder()
-                .claims(extraClaims)
+                .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + tokenLifetime))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
@@ -118,36 +184,60 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) throws TokenValidationException {
-        try {
-            final String username = extractEmail(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (Exception e) {
-            throw new TokenValidationException(e.getMessage());
-        }
+        VerifiedToken verifiedToken = verify(token);
+        return verifiedToken.email().equals(userDetails.getUsername()) && !verifiedToken.isExpired(Instant.now());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Removes the expired tokens from the verified-token cache.
+     */
+    @Scheduled(fixedDelayString = "${jwt.verified-token-cache.sweep-ms:60000}", initialDelayString = "${jwt.verified-token-cache.sweep-ms:60000}")
+    public void sweepVerifiedTokens() {
+        Instant now = Instant.now();
+        verifiedTokens.values().removeIf(verifiedToken -> verifiedToken.isExpired(now));
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private VerifiedToken parse(String token) {
+        Instant now = Instant.now();
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            verifiedTokens.remove(token);
+        }
+        Claims claims = extractAllClaims(token);
+        VerifiedToken verifiedToken = new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant(),
+                claims
+        );
+        makeRoom();
+        verifiedTokens.put(token, verifiedToken);
+        return verifiedToken;
+    }
+
+    private void makeRoom() {
+        if (verifiedTokens.size() < verifiedTokenCacheSize || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int target = verifiedTokenCacheSize - Math.max(verifiedTokenCacheSize / 10, 1);
+            Iterator<String> tokens = verifiedTokens.keySet().iterator();
+            while (verifiedTokens.size() > target && tokens.hasNext()) {
+                tokens.next();
+                tokens.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expirationDate = Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
+    private Claims extractAllClaims(String token) {
+        return parser
                 .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
-        return expirationDate.before(new Date());
+                .getPayload();
     }
-}
\ No newline at end of file
+}
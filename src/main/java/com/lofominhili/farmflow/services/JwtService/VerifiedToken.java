@@ -0,0 +1,36 @@
+package com.lofominhili.farmflow.services.JwtService;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Immutable result of parsing a JWT token and verifying its signature and expiration.
+ * It is produced once per token by {@link JwtService#verify(String)} and passed around instead of the raw token,
+ * so the token never has to be parsed again while the request is handled.
+ *
+ * @param tokenId   The id ({@code jti}) of the token, or {@code null} for tokens issued without one.
+ * @param email     The subject of the token.
+ * @param issuedAt  The moment the token was issued.
+ * @param expiresAt The moment the token expires.
+ * @param claims    All claims of the token.
+ * @author daniel
+ */
+public record VerifiedToken(
+        String tokenId,
+
+        String email,
+
+        Instant issuedAt,
+
+        Instant expiresAt,
+
+        Map<String, Object> claims
+) {
+    public VerifiedToken {
+        claims = Map.copyOf(claims);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,11 @@
+package com.lofominhili.farmflow.services.MailService;
+
+import java.util.Map;
+
+public interface MailService {
+    void enqueue(String recipient, String subject, String body);
+
+    void enqueueAll(String subject, Map<String, String> bodiesByRecipient);
+
+    void dispatch();
+}
@@ -0,0 +1,264 @@
+package com.lofominhili.farmflow.services.MailService;
+
+import com.lofominhili.farmflow.entities.MailOutboxEntity;
+import com.lofominhili.farmflow.repository.MailOutboxRepository;
+import com.lofominhili.farmflow.utils.MailStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service implementation of {@link MailService} for sending emails through a persisted outbox.
+ * Enqueued emails are stored in the {@code _mail_outbox} table first, so callers never wait for the SMTP server
+ * and no email is lost when it is unavailable. The outbox is drained on a dedicated {@code mail-dispatcher} thread,
+ * which is woken up by every enqueued email and every {@code mail.outbox.poll-ms}.
+ * Emails are claimed in batches of {@code batch-size} with {@code FOR UPDATE SKIP LOCKED} and leased for
+ * {@code lease-ms}, so several nodes can drain the same outbox without sending an email twice.
+ * Every batch is sent over a single SMTP connection, and the dispatcher sends at most {@code max-per-second} emails
+ * per second, so a large fan-out does not overwhelm the mail relay.
+ * A failed email is retried with exponential backoff with jitter, starting at {@code initial-backoff-ms}
+ * and capped at {@code max-backoff-ms}, and it is marked as failed after {@code max-attempts} attempts.
+ * The outbox rows are kept as a log of every email with its status, number of attempts and last error.
+ * This service requires instances of {@link MailOutboxRepository} and {@link JavaMailSender} to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MailServiceImpl implements MailService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Value(value = "${spring.mail.username}")
+    private String from;
+    @Value("${mail.outbox.batch-size:20}")
+    private int batchSize;
+    @Value("${mail.outbox.lease-ms:300000}")
+    private long leaseMs;
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${mail.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+    @Value("${mail.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+    @Value("${mail.outbox.max-per-second:20}")
+    private int maxPerSecond;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender javaMailSender;
+
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private final LongAdder sentEmails = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder abandonedEmails = new LongAdder();
+
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Stores an email in the outbox and wakes up the dispatcher.
+     *
+     * @param recipient The email address of the recipient.
+     * @param subject   The subject of the email.
+     * @param body      The plain text body of the email.
+     */
+    @Override
+    public void enqueue(String recipient, String subject, String body) {
+        mailOutboxRepository.save(createMail(recipient, subject, body, Instant.now()));
+        dispatch();
+    }
+
+    /**
+     * Stores one email per recipient in the outbox with batched inserts and wakes up the dispatcher.
+     *
+     * @param subject           The subject of every email.
+     * @param bodiesByRecipient The plain text body of the email, keyed by the email address of its recipient.
+     */
+    @Override
+    public void enqueueAll(String subject, Map<String, String> bodiesByRecipient) {
+        Instant now = Instant.now();
+        List<MailOutboxEntity> mails = new ArrayList<>(bodiesByRecipient.size());
+        bodiesByRecipient.forEach((recipient, body) -> mails.add(createMail(recipient, subject, body, now)));
+        mailOutboxRepository.saveAll(mails);
+        dispatch();
+    }
+
+    /**
+     * Schedules a drain of the outbox on the dispatcher thread, unless one is already scheduled.
+     * This method returns immediately, so it never holds up the scheduler thread.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-ms:10000}", initialDelayString = "${mail.outbox.poll-ms:10000}")
+    @Override
+    public void dispatch() {
+        if (!dispatchScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            dispatchScheduled.set(false);
+        }
+    }
+
+    public long getPendingEmails() {
+        return mailOutboxRepository.countByStatus(MailStatus.PENDING);
+    }
+
+    public long getSentEmails() {
+        return sentEmails.sum();
+    }
+
+    public long getFailedAttempts() {
+        return failedAttempts.sum();
+    }
+
+    public long getAbandonedEmails() {
+        return abandonedEmails.sum();
+    }
+
+    private MailOutboxEntity createMail(String recipient, String subject, String body, Instant now) {
+        MailOutboxEntity mail = new MailOutboxEntity();
+        mail.setRecipient(recipient);
+        mail.setSubject(subject);
+        mail.setBody(body);
+        mail.setStatus(MailStatus.PENDING);
+        mail.setAttempts(0);
+        mail.setNextAttemptAt(now);
+        mail.setCreatedAt(now);
+        return mail;
+    }
+
+    private void drain() {
+        dispatchScheduled.set(false);
+        try {
+            List<MailOutboxEntity> claimed;
+            do {
+                long started = System.nanoTime();
+                Instant now = Instant.now();
+                claimed = mailOutboxRepository.claimDue(now, now.plusMillis(leaseMs), batchSize);
+                send(claimed);
+                throttle(claimed.size(), started);
+            } while (claimed.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Could not drain the mail outbox", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(List<MailOutboxEntity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        SimpleMailMessage[] messages = batch.stream()
+                .map(this::toMessage)
+                .toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        try {
+            javaMailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            batchFailure = e;
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            MailOutboxEntity mail = batch.get(i);
+            mail.setAttempts(mail.getAttempts() + 1);
+            if (batchFailure == null) {
+                markSent(mail);
+            } else if (failures.isEmpty()) {
+                markFailed(mail, batchFailure);
+            } else if (failures.containsKey(messages[i])) {
+                markFailed(mail, failures.get(messages[i]));
+            } else {
+                markSent(mail);
+            }
+        }
+        mailOutboxRepository.saveAll(batch);
+    }
+
+    private SimpleMailMessage toMessage(MailOutboxEntity mail) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(mail.getRecipient());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getBody());
+        return message;
+    }
+
+    private void markSent(MailOutboxEntity mail) {
+        mail.setStatus(MailStatus.SENT);
+        mail.setSentAt(Instant.now());
+        mail.setLastError(null);
+        sentEmails.increment();
+    }
+
+    private void markFailed(MailOutboxEntity mail, Exception e) {
+        failedAttempts.increment();
+        mail.setLastError(truncate(String.valueOf(e.getMessage())));
+        if (mail.getAttempts() >= maxAttempts) {
+            mail.setStatus(MailStatus.FAILED);
+            abandonedEmails.increment();
+            log.warn("Giving up on email {} to {} after {} attempts", mail.getId(), mail.getRecipient(), mail.getAttempts(), e);
+        } else {
+            mail.setNextAttemptAt(Instant.now().plusMillis(backoff(mail.getAttempts())));
+            log.info("Could not send email {} to {}, attempt {} of {}", mail.getId(), mail.getRecipient(), mail.getAttempts(), maxAttempts);
+        }
+    }
+
+    private void throttle(int sent, long started) throws InterruptedException {
+        long minimumNanos = TimeUnit.SECONDS.toNanos(sent) / maxPerSecond;
+        long remainingNanos = minimumNanos - (System.nanoTime() - started);
+        if (remainingNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(remainingNanos);
+        }
+    }
+
+    private long backoff(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 30);
+        if (delay <= 0 || delay > maxBackoffMs) {
+            delay = maxBackoffMs;
+        }
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
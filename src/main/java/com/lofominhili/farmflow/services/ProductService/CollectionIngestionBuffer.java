@@ -0,0 +1,236 @@
+package com.lofominhili.farmflow.services.ProductService;
+
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional write-behind buffer for collected products.
+ * When enabled, accepted collections are put into a bounded in-memory queue instead of being committed
+ * by the request thread. A single writer thread drains the queue and stores everything it has drained
+ * with one {@link CollectionWriter#write(List)} call, i.e. one group commit, as soon as either
+ * {@code max-batch-size} collections are waiting or {@code max-delay-ms} has passed since the first one arrived.
+ * Each caller is released once the group commit containing its collections is durable.
+ * If the queue stays full for longer than {@code offer-timeout-ms}, or the group commit is not durable
+ * within {@code commit-timeout-ms}, the caller is rejected with a {@link ServiceOverloadedException}.
+ * When the writer thread stops, on shutdown or because of an error, the buffer stops accepting collections
+ * and every submission that has not been committed yet is failed, so no caller waits for a writer that is gone.
+ * This component requires an instance of {@link CollectionWriter} to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CollectionIngestionBuffer {
+
+    @Getter
+    @Value("${product-service.buffered-ingestion.enabled:false}")
+    private boolean enabled;
+    @Value("${product-service.buffered-ingestion.capacity:10000}")
+    private int capacity;
+    @Value("${product-service.buffered-ingestion.max-batch-size:500}")
+    private int maxBatchSize;
+    @Value("${product-service.buffered-ingestion.max-delay-ms:5}")
+    private long maxDelayMs;
+    @Value("${product-service.buffered-ingestion.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+    @Value("${product-service.buffered-ingestion.commit-timeout-ms:30000}")
+    private long commitTimeoutMs;
+
+    private final CollectionWriter collectionWriter;
+
+    private final AtomicLong committedBatches = new AtomicLong();
+    private final AtomicLong committedCollections = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxObservedBatchSize = new AtomicLong();
+    private final AtomicLong rejectedSubmissions = new AtomicLong();
+
+    private BlockingQueue<PendingSubmission> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "collection-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queues the given collections and waits until the group commit containing them is durable.
+     * If the wait times out while the collections are still queued, they are taken out of the queue
+     * and never stored. If it times out while their group commit is already running, that commit may still complete.
+     *
+     * @param collections The validated collections to store.
+     * @throws ServiceOverloadedException If the queue stays full for longer than the offer timeout,
+     *                                    or the group commit is not durable within the commit timeout.
+     */
+    public void submit(List<CollectionWriter.CollectedProduct> collections) throws ServiceOverloadedException {
+        PendingSubmission submission = new PendingSubmission(collections, new CompletableFuture<>());
+        try {
+            if (!running || !queue.offer(submission, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejectedSubmissions.incrementAndGet();
+                throw new ServiceOverloadedException("Too many collections are being processed, please retry later!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting for the ingestion queue!");
+        }
+        if (!running && queue.remove(submission)) {
+            rejectedSubmissions.incrementAndGet();
+            throw new ServiceOverloadedException("Collections are not being accepted right now, please retry later!");
+        }
+        try {
+            submission.result().get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ServiceOverloadedException cause) {
+                rejectedSubmissions.incrementAndGet();
+                throw new ServiceOverloadedException(cause.getMessage());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            queue.remove(submission);
+            rejectedSubmissions.incrementAndGet();
+            throw new ServiceOverloadedException("The collections could not be stored in time, please retry later!");
+        } catch (InterruptedException e) {
+            queue.remove(submission);
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting for the group commit!");
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public long getCommittedBatches() {
+        return committedBatches.get();
+    }
+
+    public long getCommittedCollections() {
+        return committedCollections.get();
+    }
+
+    public long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+
+    public long getMaxBatchSize() {
+        return maxObservedBatchSize.get();
+    }
+
+    public long getRejectedSubmissions() {
+        return rejectedSubmissions.get();
+    }
+
+    private void drainLoop() {
+        List<PendingSubmission> batch = new ArrayList<>();
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingSubmission first = queue.poll(maxDelayMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.clear();
+                batch.add(first);
+                int size = first.collections().size();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (size < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingSubmission next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    size += next.collections().size();
+                }
+                commit(batch, size);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+            failRemaining(batch);
+        }
+    }
+
+    private void failRemaining(List<PendingSubmission> batch) {
+        List<PendingSubmission> remaining = new ArrayList<>(batch);
+        queue.drainTo(remaining);
+        ServiceOverloadedException stopped = new ServiceOverloadedException("Collections are not being accepted right now, please retry later!");
+        int failed = 0;
+        for (PendingSubmission submission : remaining) {
+            if (submission.result().completeExceptionally(stopped)) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            log.error("The collection ingestion writer stopped with {} submissions not committed", failed);
+        }
+    }
+
+    private void commit(List<PendingSubmission> batch, int size) {
+        try {
+            List<CollectionWriter.CollectedProduct> collections = batch.stream()
+                    .flatMap(submission -> submission.collections().stream())
+                    .toList();
+            collectionWriter.write(collections);
+            batch.forEach(submission -> submission.result().complete(null));
+            committedBatches.incrementAndGet();
+            committedCollections.addAndGet(size);
+            lastBatchSize.set(size);
+            maxObservedBatchSize.accumulateAndGet(size, Math::max);
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} collections failed, retrying them one submission at a time", size, e);
+            batch.forEach(this::commitAlone);
+        }
+    }
+
+    private void commitAlone(PendingSubmission submission) {
+        try {
+            collectionWriter.write(submission.collections());
+            submission.result().complete(null);
+            committedBatches.incrementAndGet();
+            committedCollections.addAndGet(submission.collections().size());
+        } catch (RuntimeException e) {
+            submission.result().completeExceptionally(e);
+        }
+    }
+
+    private record PendingSubmission(List<CollectionWriter.CollectedProduct> collections,
+                                     CompletableFuture<Void> result) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.lofominhili.farmflow.services.ProductService;
+
+import com.lofominhili.farmflow.entities.ProductEntity;
+import com.lofominhili.farmflow.entities.RecordEntity;
+import com.lofominhili.farmflow.entities.UserEntity;
+import com.lofominhili.farmflow.repository.ProductRepository;
+import com.lofominhili.farmflow.repository.RecordDailyRollupRepository;
+import com.lofominhili.farmflow.repository.RecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Component that durably stores already validated collections.
+ * All collections passed to {@link #write(List)} are stored in one transaction:
+ * the records are inserted with a single batched {@code saveAll}, the daily rollups are upserted once per
+ * product, worker and day, and the product totals are changed with atomic in-database updates once per product.
+ * Harvest quotas are not touched here, they are tracked by {@link HarvestQuotaTracker}.
+ * Products are always updated in ascending id order so that concurrent writers lock rows in the same order.
+ * This component requires instances of {@link ProductRepository}, {@link RecordRepository},
+ * and {@link RecordDailyRollupRepository} to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Component
+@RequiredArgsConstructor
+public class CollectionWriter {
+
+    private static final Comparator<RollupKey> ROLLUP_KEY_ORDER = Comparator
+            .comparing(RollupKey::productId)
+            .thenComparing(RollupKey::userId)
+            .thenComparing(RollupKey::date);
+
+    private final ProductRepository productRepository;
+    private final RecordRepository recordRepository;
+    private final RecordDailyRollupRepository recordDailyRollupRepository;
+
+    /**
+     * Stores the given collections in a single transaction.
+     *
+     * @param collections The validated collections to store.
+     */
+    @Transactional
+    public void write(List<CollectedProduct> collections) {
+        List<RecordEntity> records = collections.stream()
+                .map(this::createRecord)
+                .toList();
+        recordRepository.saveAll(records);
+
+        records.stream()
+                .collect(Collectors.groupingBy(
+                        record -> new RollupKey(record.getProduct().getId(), record.getUser().getId(), record.getDate()),
+                        () -> new TreeMap<>(ROLLUP_KEY_ORDER),
+                        Collectors.toList()))
+                .forEach((key, group) -> recordDailyRollupRepository.increment(
+                        key.date(), key.productId(), key.userId(), sumAmount(group), group.size()));
+
+        records.stream()
+                .collect(Collectors.groupingBy(
+                        record -> record.getProduct().getId(),
+                        TreeMap::new,
+                        Collectors.toList()))
+                .forEach((productId, group) -> productRepository.increaseAmount(productId, sumAmount(group)));
+    }
+
+    private RecordEntity createRecord(CollectedProduct collection) {
+        RecordEntity record = new RecordEntity();
+        record.setProduct(collection.product());
+        record.setUser(collection.user());
+        record.setAmount(collection.amount());
+        return record;
+    }
+
+    private int sumAmount(List<RecordEntity> records) {
+        return records.stream().mapToInt(RecordEntity::getAmount).sum();
+    }
+
+    /**
+     * A single validated collection of a product by a worker.
+     */
+    public record CollectedProduct(ProductEntity product, UserEntity user, int amount) {
+    }
+
+    private record RollupKey(Long productId, Long userId, LocalDate date) {
+    }
+}
@@ -0,0 +1,230 @@
+package com.lofominhili.farmflow.services.ProductService;
+
+import com.lofominhili.farmflow.dto.ProjectionDTO.HarvestQuotaStateDTO;
+import com.lofominhili.farmflow.entities.HarvestRateEntity;
+import com.lofominhili.farmflow.repository.HarvestRateRepository;
+import com.lofominhili.farmflow.utils.HarvestPeriod;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory tracker of the harvest quota left for every product in the current period.
+ * Every product has at most one quota, which holds a rate for either a day or a week.
+ * Collections are subtracted from the quota with a {@link LongAdder}, so recording a collection
+ * never touches the quota row and never blocks other collections of the same product.
+ * When a new period starts, the first collection in it replaces the counters with a fresh state
+ * holding the full rate again.
+ * The consumed amounts are flushed to the database every {@code harvest-quota.flush-ms} with one atomic update
+ * per product with new collections, which also rolls the row over to the new period and returns the amount left on it,
+ * so collections stored by other nodes reach this node with its next flush of the same product.
+ * Products without new collections are not written at all.
+ * After every flush the quotas are reconciled with the table, so quotas added, replaced or deleted
+ * by other nodes are picked up as well.
+ * Flushing and replacing a quota are serialized, so amounts consumed under a replaced quota are never
+ * subtracted from the new one.
+ * Amounts consumed after the last flush are lost if the node stops without shutting down.
+ * This component requires an instance of {@link HarvestRateRepository} to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HarvestQuotaTracker {
+
+    private final HarvestRateRepository harvestRateRepository;
+
+    private final Map<Long, Quota> quotas = new ConcurrentHashMap<>();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    /**
+     * Reconciles the quotas held in memory with the quotas stored in the database.
+     * Quotas of products that are not in memory yet are added, quotas whose period or rate has changed
+     * or whose stored period has started later than the one in memory are replaced, and quotas whose row
+     * has been deleted are dropped.
+     */
+    @PostConstruct
+    public synchronized void load() {
+        Set<Long> productIds = new HashSet<>();
+        for (HarvestRateEntity harvestRate : harvestRateRepository.findAll()) {
+            Long productId = harvestRate.getProduct().getId();
+            productIds.add(productId);
+            Quota quota = quotas.get(productId);
+            if (quota == null || quota.isReplacedBy(harvestRate)) {
+                quotas.put(productId, new Quota(harvestRate));
+            }
+        }
+        quotas.keySet().retainAll(productIds);
+    }
+
+    /**
+     * Subtracts the given amount from the quota of the product in the current period.
+     *
+     * @param productId The id of the product.
+     * @param amount    The collected amount.
+     * @return The amount left in the current period, or {@code 0} if the product has no quota.
+     */
+    public int consume(Long productId, int amount) {
+        Quota quota = quotas.get(productId);
+        if (quota == null) {
+            return 0;
+        }
+        PeriodState state = quota.currentState(LocalDate.now());
+        state.pending().add(amount);
+        return (int) Math.max(state.base().get() - state.pending().sum(), 0);
+    }
+
+    /**
+     * Returns the amount left in the current period for every product that has a quota.
+     *
+     * @return The amounts left, keyed by product id.
+     */
+    public Map<Long, Integer> getAmountsLeft() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Integer> amountsLeft = new HashMap<>();
+        quotas.forEach((productId, quota) -> {
+            PeriodState state = quota.currentState(today);
+            amountsLeft.put(productId, (int) Math.max(state.base().get() - state.pending().sum(), 0));
+        });
+        return amountsLeft;
+    }
+
+    /**
+     * Creates or replaces the quota of a product with one atomic upsert, starting with the full rate
+     * left in the current period, and replaces the quota held in memory.
+     * Amounts consumed under the previous quota that were not flushed yet are discarded.
+     *
+     * @param productId The id of the product.
+     * @param rate      The amount that may be collected in every period.
+     * @param period    The period the rate is set for.
+     */
+    public synchronized void reset(Long productId, int rate, HarvestPeriod period) {
+        HarvestRateEntity harvestRate = harvestRateRepository.upsert(productId, rate, period.name(), period.startOf(LocalDate.now()));
+        quotas.put(productId, new Quota(harvestRate));
+    }
+
+    /**
+     * Writes the amounts consumed since the last flush to the database, in ascending product id order,
+     * and takes over the amounts left on the written rows, which include collections stored by other nodes.
+     * The quotas are reconciled with the database afterwards, see {@link #load()}.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${harvest-quota.flush-ms:5000}", initialDelayString = "${harvest-quota.flush-ms:5000}")
+    public synchronized void flush() {
+        LocalDate today = LocalDate.now();
+        new TreeMap<>(quotas).forEach((productId, quota) -> {
+            try {
+                flush(productId, quota, today);
+            } catch (RuntimeException e) {
+                failedFlushes.incrementAndGet();
+                log.warn("Could not flush the harvest quota of product {}", productId, e);
+            }
+        });
+        load();
+        flushes.incrementAndGet();
+    }
+
+    public int getSize() {
+        return quotas.size();
+    }
+
+    public long getUnflushedAmount() {
+        return quotas.values().stream()
+                .mapToLong(quota -> quota.state().get().pending().sum())
+                .sum();
+    }
+
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+
+    private void flush(Long productId, Quota quota, LocalDate today) {
+        if (quotas.get(productId) != quota) {
+            return;
+        }
+        PeriodState state = quota.currentState(today);
+        long consumed = state.pending().sum();
+        if (consumed == 0) {
+            return;
+        }
+        Optional<HarvestQuotaStateDTO> stored = harvestRateRepository.consume(productId, state.periodStart(), consumed);
+        state.pending().add(-consumed);
+        if (stored.isEmpty()) {
+            quotas.remove(productId, quota);
+            return;
+        }
+        HarvestQuotaStateDTO row = stored.get();
+        quota.update(HarvestPeriod.valueOf(row.getPeriod()), row.getRate());
+        if (row.getPeriodStart().isAfter(state.periodStart())) {
+            quota.state().compareAndSet(state, new PeriodState(row.getPeriodStart(), new AtomicLong(row.getAmount()), new LongAdder()));
+            return;
+        }
+        state.base().set(row.getAmount());
+    }
+
+    private static final class Quota {
+
+        private final AtomicReference<PeriodState> state;
+        private volatile HarvestPeriod period;
+        private volatile int rate;
+
+        private Quota(HarvestRateEntity harvestRate) {
+            this.period = harvestRate.getPeriod();
+            this.rate = harvestRate.getRate();
+            this.state = new AtomicReference<>(
+                    new PeriodState(harvestRate.getPeriodStart(), new AtomicLong(harvestRate.getAmount()), new LongAdder()));
+        }
+
+        private AtomicReference<PeriodState> state() {
+            return state;
+        }
+
+        private boolean isReplacedBy(HarvestRateEntity harvestRate) {
+            return period != harvestRate.getPeriod()
+                    || rate != harvestRate.getRate()
+                    || harvestRate.getPeriodStart().isAfter(state.get().periodStart());
+        }
+
+        private void update(HarvestPeriod period, int rate) {
+            this.period = period;
+            this.rate = rate;
+        }
+
+        private PeriodState currentState(LocalDate today) {
+            LocalDate periodStart = period.startOf(today);
+            PeriodState current = state.get();
+            while (current.periodStart().isBefore(periodStart)) {
+                PeriodState next = new PeriodState(periodStart, new AtomicLong(rate), new LongAdder());
+                if (state.compareAndSet(current, next)) {
+                    return next;
+                }
+                current = state.get();
+            }
+            return current;
+        }
+    }
+
+    private record PeriodState(LocalDate periodStart, AtomicLong base, LongAdder pending) {
+    }
+}
@@ -5,9 +5,14 @@ import com.lofominhili.farmflow.dto.EntityDTO.ProductDTO;
 import com.lofominhili.farmflow.exceptions.NotFoundException;
 import com.lofominhili.farmflow.exceptions.ProductDuplicateException;
 import com.lofominhili.farmflow.exceptions.RequestDataValidationFailedException;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
+
+import java.util.List;
 
 public interface ProductService {
     void registerProduct(ProductDTO product) throws ProductDuplicateException;
 
-    HarvestRateDTO addCollectedProduct(ProductDTO product) throws NotFoundException, RequestDataValidationFailedException;
+    HarvestRateDTO addCollectedProduct(ProductDTO product) throws NotFoundException, RequestDataValidationFailedException, ServiceOverloadedException;
+
+    List<HarvestRateDTO> addCollectedProducts(List<ProductDTO> products) throws NotFoundException, RequestDataValidationFailedException, ServiceOverloadedException;
 }
@@ -1,32 +1,42 @@
 package com.lofominhili.farmflow.services.ProductService;
 
+import com.lofominhili.farmflow.cache.ProductCatalogCache;
 import com.lofominhili.farmflow.dto.EntityDTO.HarvestRateDTO;
 import com.lofominhili.farmflow.dto.EntityDTO.ProductDTO;
-import com.lofominhili.farmflow.entities.HarvestRateEntity;
+import com.lofominhili.farmflow.dto.ResponseDTO.QuotaProgressDTO;
 import com.lofominhili.farmflow.entities.ProductEntity;
-import com.lofominhili.farmflow.entities.RecordEntity;
 import com.lofominhili.farmflow.entities.UserEntity;
 import com.lofominhili.farmflow.exceptions.NotFoundException;
 import com.lofominhili.farmflow.exceptions.ProductDuplicateException;
 import com.lofominhili.farmflow.exceptions.RequestDataValidationFailedException;
-import com.lofominhili.farmflow.mappers.HarvestRateMapper;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
 import com.lofominhili.farmflow.mappers.ProductMapper;
-import com.lofominhili.farmflow.repository.HarvestRateRepository;
 import com.lofominhili.farmflow.repository.ProductRepository;
-import com.lofominhili.farmflow.repository.RecordRepository;
+import com.lofominhili.farmflow.repository.UserRepository;
+import com.lofominhili.farmflow.security.AuthenticatedPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Service implementation of {@link ProductService}for product-related operations.
- * This service provides methods for registering new products, adding collected products,
+ * This service provides methods for registering new products, adding collected products one by one or in batches,
  * and managing harvest rates.
- * This service requires instances of {@link ProductRepository}, {@link ProductMapper},
- * {@link RecordRepository}, {@link HarvestRateRepository}, and {@link HarvestRateMapper}
- * to be injected via constructor.
+ * Validated collections are stored by {@link CollectionWriter}, either directly or,
+ * when buffered ingestion is enabled, through the group commits of {@link CollectionIngestionBuffer}.
+ * Once they are stored, the collected amounts are subtracted from the harvest quotas held by {@link HarvestQuotaTracker}
+ * and pushed to quota progress subscribers through {@link QuotaProgressBroadcaster}.
+ * Every stored collection is counted in the {@code farmflow.collections} and {@code farmflow.collected.amount}
+ * counters, tagged with the product and its measure.
+ * This service requires instances of {@link ProductRepository}, {@link ProductCatalogCache}, {@link ProductMapper},
+ * {@link UserRepository}, {@link CollectionWriter}, {@link CollectionIngestionBuffer}, {@link HarvestQuotaTracker},
+ * {@link QuotaProgressBroadcaster}, and {@link MeterRegistry} to be injected via constructor.
  *
  * @author daniel
  */
@@ -35,15 +45,20 @@ import java.util.Optional;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductCatalogCache productCatalogCache;
     private final ProductMapper productMapper;
-    private final RecordRepository recordRepository;
-    private final HarvestRateRepository harvestRateRepository;
-    private final HarvestRateMapper harvestRateMapper;
+    private final UserRepository userRepository;
+    private final CollectionWriter collectionWriter;
+    private final CollectionIngestionBuffer collectionIngestionBuffer;
+    private final HarvestQuotaTracker harvestQuotaTracker;
+    private final QuotaProgressBroadcaster quotaProgressBroadcaster;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Registers a new product with the provided product information.
-     * This method checks if a product with the given name already exists in the repository.
-     * If not, the product information is converted to a ProductEntity and saved in the repository.
+     * This method checks if a product with the given name already exists in the product catalog.
+     * If not, the product information is converted to a ProductEntity, saved in the repository
+     * and added to the {@link ProductCatalogCache}.
      *
      * @param productDTO The {@link ProductDTO} containing information about the product to be registered.
      *                   It should include the product's name, measure, and amount.
@@ -52,19 +67,23 @@ public class ProductServiceImpl implements ProductService {
      */
     @Override
     public void registerProduct(ProductDTO productDTO) throws ProductDuplicateException {
-        if (productRepository.findByName(productDTO.name()).isPresent()) {
+        if (productCatalogCache.findByName(productDTO.name()).isPresent()) {
             throw new ProductDuplicateException("This Product already exists!");
         }
         ProductEntity product = productMapper.toEntity(productDTO);
-        productRepository.save(product);
+        productCatalogCache.put(productRepository.save(product));
     }
 
     /**
      * Adds collected products to the specified product.
      * This method retrieves the current user from the security context,
-     * then retrieves the product from the product repository based on the name provided in the ProductDTO.
+     * then retrieves the product from the {@link ProductCatalogCache} based on the name provided in the ProductDTO.
      * It validates the product measure and creates a record for the collected products.
-     * If a record is created, it also updates the harvest rate accordingly.
+     * The product total is changed with an atomic in-database update,
+     * and it is written together with the record and the matching daily rollup in one transaction,
+     * so concurrent collections of the same product never lose an update.
+     * Once the record is stored, the collected amount is subtracted from the product's harvest quota
+     * in the current period, which is held in memory by {@link HarvestQuotaTracker}.
      *
      * @param productDTO The {@link ProductDTO} containing information about the collected product.
      *                   It should include the product's name, measure, and amount.
@@ -73,38 +92,83 @@ public class ProductServiceImpl implements ProductService {
      *                                              This exception indicates that the specified product does not exist.
      * @throws RequestDataValidationFailedException If the measure provided in the ProductDTO does not match the registered one.
      *                                              This exception indicates a validation failure for the product measure.
+     * @throws ServiceOverloadedException           If buffered ingestion is enabled and its queue is full.
      */
-    public HarvestRateDTO addCollectedProduct(ProductDTO productDTO) throws NotFoundException, RequestDataValidationFailedException {
-        UserEntity currentUser = (UserEntity) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        ProductEntity product = productRepository.findByName(productDTO.name())
-                .orElseThrow(() -> new NotFoundException("Product not found!"));
-        validateProductAndCreateRecord(product, productDTO, currentUser);
-        return updateHarvestRateIfNeeded(product, productDTO);
+    @Override
+    public HarvestRateDTO addCollectedProduct(ProductDTO productDTO) throws NotFoundException, RequestDataValidationFailedException, ServiceOverloadedException {
+        return collect(List.of(productDTO)).get(0);
     }
 
-    private void validateProductAndCreateRecord(ProductEntity product, ProductDTO productDTO, UserEntity currentUser) throws RequestDataValidationFailedException {
-        if (!productDTO.measure().equalsIgnoreCase(product.getMeasure().toString())) {
-            throw new RequestDataValidationFailedException("Measure does not match the registered one!");
-        }
-        product.setAmount(product.getAmount() + productDTO.amount());
-        productRepository.save(product);
-        RecordEntity record = new RecordEntity();
-        record.setProduct(product);
-        record.setUser(currentUser);
-        record.setAmount(productDTO.amount());
-        recordRepository.save(record);
+    /**
+     * Adds a batch of collected products in a single transaction.
+     * This method resolves all product names through the {@link ProductCatalogCache} and validates every entry before anything is written,
+     * so either the whole batch is stored or none of it is.
+     * Records are inserted with a single batched {@code saveAll}, while the product totals, daily rollups
+     * and harvest quotas are updated once per distinct product and day rather than once per entry.
+     *
+     * @param productDTOs The list of {@link ProductDTO} entries describing the collected products.
+     * @return A list of {@link HarvestRateDTO} in the same order as the entries, each holding the harvest rate left
+     * for the entry's product after the whole batch has been applied.
+     * @throws NotFoundException                    If any product in the batch is not found in the {@link ProductRepository}.
+     * @throws RequestDataValidationFailedException If any measure in the batch does not match the registered one.
+     * @throws ServiceOverloadedException           If buffered ingestion is enabled and its queue is full.
+     */
+    @Override
+    public List<HarvestRateDTO> addCollectedProducts(List<ProductDTO> productDTOs) throws NotFoundException, RequestDataValidationFailedException, ServiceOverloadedException {
+        return collect(productDTOs);
     }
 
-    private HarvestRateDTO updateHarvestRateIfNeeded(ProductEntity product, ProductDTO productDTO) {
-        Optional<HarvestRateEntity> harvestRate = harvestRateRepository.findByProduct(product);
-        if (harvestRate.isPresent()) {
-            Integer difference = Math.max(harvestRate.get().getAmount() - productDTO.amount(), 0);
-            harvestRate.get().setAmount(difference);
-            harvestRateRepository.save(harvestRate.get());
-            return harvestRateMapper.toDto(harvestRate.get());
+    private List<HarvestRateDTO> collect(List<ProductDTO> productDTOs) throws NotFoundException, RequestDataValidationFailedException, ServiceOverloadedException {
+        AuthenticatedPrincipal principal = (AuthenticatedPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        UserEntity currentUser = userRepository.getReferenceById(principal.id());
+        Map<String, ProductEntity> products = findAndValidateProducts(productDTOs);
+        List<CollectionWriter.CollectedProduct> collections = productDTOs.stream()
+                .map(productDTO -> new CollectionWriter.CollectedProduct(products.get(productDTO.name()), currentUser, productDTO.amount()))
+                .toList();
+        if (collectionIngestionBuffer.isEnabled()) {
+            collectionIngestionBuffer.submit(collections);
+        } else {
+            collectionWriter.write(collections);
         }
-        return new HarvestRateDTO(product.getName(), product.getMeasure().toString(), null, 0);
+        collections.forEach(this::countCollection);
+
+        Map<Long, Integer> collectedAmounts = new TreeMap<>();
+        collections.forEach(collection -> collectedAmounts.merge(collection.product().getId(), collection.amount(), Integer::sum));
+        Map<Long, Integer> harvestRatesLeft = new HashMap<>();
+        collectedAmounts.forEach((productId, amount) -> harvestRatesLeft.put(productId, harvestQuotaTracker.consume(productId, amount)));
+        quotaProgressBroadcaster.publish(products.values().stream()
+                .map(product -> new QuotaProgressDTO(product.getName(), product.getMeasure().toString(),
+                        collectedAmounts.get(product.getId()), harvestRatesLeft.get(product.getId())))
+                .toList());
+
+        return productDTOs.stream()
+                .map(productDTO -> {
+                    ProductEntity product = products.get(productDTO.name());
+                    return new HarvestRateDTO(product.getName(), product.getMeasure().toString(), null, null, harvestRatesLeft.get(product.getId()));
+                })
+                .toList();
     }
 
-}
+    private void countCollection(CollectionWriter.CollectedProduct collection) {
+        String product = collection.product().getName();
+        String measure = collection.product().getMeasure().toString();
+        meterRegistry.counter("farmflow.collections", "product", product, "measure", measure).increment();
+        meterRegistry.counter("farmflow.collected.amount", "product", product, "measure", measure).increment(collection.amount());
+    }
 
+    private Map<String, ProductEntity> findAndValidateProducts(List<ProductDTO> productDTOs) throws NotFoundException, RequestDataValidationFailedException {
+        Map<String, ProductEntity> products = new HashMap<>();
+        for (ProductDTO productDTO : productDTOs) {
+            ProductEntity product = products.get(productDTO.name());
+            if (product == null) {
+                product = productCatalogCache.findByName(productDTO.name())
+                        .orElseThrow(() -> new NotFoundException("Product not found!"));
+                products.put(product.getName(), product);
+            }
+            if (!productDTO.measure().equalsIgnoreCase(product.getMeasure().toString())) {
+                throw new RequestDataValidationFailedException("Measure does not match the registered one!");
+            }
+        }
+        return products;
+    }
+}
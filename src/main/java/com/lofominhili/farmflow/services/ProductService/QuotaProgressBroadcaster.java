@@ -0,0 +1,292 @@
+package com.lofominhili.farmflow.services.ProductService;
+
+import com.lofominhili.farmflow.cache.ProductCatalogCache;
+import com.lofominhili.farmflow.dto.ResponseDTO.QuotaProgressDTO;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process broadcaster of harvest quota progress to Server-Sent Events subscribers.
+ * Every subscriber has its own buffer holding at most one pending update per product:
+ * an update for a product that is already waiting is merged into it, so a slow client receives
+ * the summed collected amount and the latest amount left instead of every single collection,
+ * and its buffer never grows beyond {@code max-pending-products} entries.
+ * Each subscriber is drained by at most one sender thread at a time, and threads are created on demand,
+ * so a send that blocks because a client stopped reading only ever holds up that client's own updates.
+ * A subscriber whose current send has been blocked for longer than {@code send-timeout-ms} is dropped:
+ * it receives no further updates, and its connection is closed as soon as the blocked write returns,
+ * which happens at the latest when the server's write timeout fails it.
+ * At most {@code max-subscribers} clients may subscribe at a time, which also bounds the number of sender threads
+ * apart from those still blocked on dropped subscribers.
+ * A new subscriber first receives the amount left for every product that has a quota,
+ * and every subscriber receives a comment every {@code heartbeat-ms} so that closed connections
+ * and blocked sends are noticed.
+ * This component requires instances of {@link HarvestQuotaTracker} and {@link ProductCatalogCache}
+ * to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Component
+@RequiredArgsConstructor
+public class QuotaProgressBroadcaster {
+
+    private static final String EVENT_NAME = "quota-progress";
+
+    @Value("${quota-progress.timeout-ms:1800000}")
+    private long timeoutMs;
+    @Value("${quota-progress.max-subscribers:100}")
+    private int maxSubscribers;
+    @Value("${quota-progress.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+    @Value("${quota-progress.max-pending-products:1000}")
+    private int maxPendingProducts;
+
+    private final HarvestQuotaTracker harvestQuotaTracker;
+    private final ProductCatalogCache productCatalogCache;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder sentUpdates = new LongAdder();
+    private final LongAdder coalescedUpdates = new LongAdder();
+    private final LongAdder droppedUpdates = new LongAdder();
+    private final LongAdder droppedSubscribers = new LongAdder();
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        sender = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "quota-progress-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    /**
+     * Registers a new subscriber and queues the amount left for every product that has a quota.
+     *
+     * @return The {@link SseEmitter} the updates are sent through.
+     * @throws ServiceOverloadedException If {@code max-subscribers} clients are subscribed already.
+     */
+    public SseEmitter subscribe() throws ServiceOverloadedException {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceOverloadedException("Too many quota progress subscribers, try again later");
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs));
+        subscriber.emitter().onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter().onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter().onError(e -> subscribers.remove(subscriber));
+        harvestQuotaTracker.getAmountsLeft().forEach((productId, left) ->
+                productCatalogCache.findById(productId).ifPresent(product -> offer(subscriber,
+                        new QuotaProgressDTO(product.getName(), product.getMeasure().toString(), 0, left))));
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return subscriber.emitter();
+    }
+
+    /**
+     * Queues the given updates for every subscriber.
+     *
+     * @param updates The updates, at most one per product.
+     */
+    public void publish(List<QuotaProgressDTO> updates) {
+        for (Subscriber subscriber : subscribers) {
+            updates.forEach(update -> offer(subscriber, update));
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Sends a comment to every subscriber on a fixed delay, which fails and removes closed connections,
+     * and drops the subscribers whose current send has been blocked for longer than {@code send-timeout-ms}.
+     */
+    @Scheduled(fixedDelayString = "${quota-progress.heartbeat-ms:15000}", initialDelayString = "${quota-progress.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long sendingSince = subscriber.sendingSince();
+            if (sendingSince != 0 && now - sendingSince > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+                drop(subscriber);
+                continue;
+            }
+            subscriber.heartbeatDue().set(true);
+            schedule(subscriber);
+        }
+    }
+
+    public int getSubscribers() {
+        return subscribers.size();
+    }
+
+    public long getSentUpdates() {
+        return sentUpdates.sum();
+    }
+
+    public long getCoalescedUpdates() {
+        return coalescedUpdates.sum();
+    }
+
+    public long getDroppedUpdates() {
+        return droppedUpdates.sum();
+    }
+
+    public long getDroppedSubscribers() {
+        return droppedSubscribers.sum();
+    }
+
+    private void offer(Subscriber subscriber, QuotaProgressDTO update) {
+        synchronized (subscriber.pending()) {
+            QuotaProgressDTO waiting = subscriber.pending().get(update.productName());
+            if (waiting != null) {
+                subscriber.pending().put(update.productName(), waiting.merge(update));
+                coalescedUpdates.increment();
+            } else if (subscriber.pending().size() < maxPendingProducts) {
+                subscriber.pending().put(update.productName(), update);
+            } else {
+                droppedUpdates.increment();
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.draining().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining().set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                if (!subscribers.contains(subscriber)) {
+                    subscriber.draining().set(false);
+                    subscriber.emitter().complete();
+                    return;
+                }
+                List<QuotaProgressDTO> updates = take(subscriber);
+                boolean heartbeatDue = subscriber.heartbeatDue().getAndSet(false);
+                if (updates.isEmpty() && !heartbeatDue) {
+                    subscriber.draining().set(false);
+                    if (isIdle(subscriber) || !subscriber.draining().compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (heartbeatDue) {
+                    send(subscriber, SseEmitter.event().comment("heartbeat"));
+                }
+                for (QuotaProgressDTO update : updates) {
+                    send(subscriber, SseEmitter.event()
+                            .name(EVENT_NAME)
+                            .data(update, MediaType.APPLICATION_JSON));
+                    sentUpdates.increment();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.draining().set(false);
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendingSince(System.nanoTime());
+        try {
+            subscriber.emitter().send(event);
+        } finally {
+            subscriber.sendingSince(0);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        droppedSubscribers.increment();
+        synchronized (subscriber.pending()) {
+            subscriber.pending().clear();
+        }
+    }
+
+    private List<QuotaProgressDTO> take(Subscriber subscriber) {
+        synchronized (subscriber.pending()) {
+            List<QuotaProgressDTO> updates = List.copyOf(subscriber.pending().values());
+            subscriber.pending().clear();
+            return updates;
+        }
+    }
+
+    private boolean isIdle(Subscriber subscriber) {
+        synchronized (subscriber.pending()) {
+            return subscriber.pending().isEmpty() && !subscriber.heartbeatDue().get();
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Map<String, QuotaProgressDTO> pending = new LinkedHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private SseEmitter emitter() {
+            return emitter;
+        }
+
+        private Map<String, QuotaProgressDTO> pending() {
+            return pending;
+        }
+
+        private AtomicBoolean draining() {
+            return draining;
+        }
+
+        private AtomicBoolean heartbeatDue() {
+            return heartbeatDue;
+        }
+
+        private long sendingSince() {
+            return sendingSince;
+        }
+
+        private void sendingSince(long sendingSince) {
+            this.sendingSince = sendingSince;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.lofominhili.farmflow.services.RecordService;
+
+import com.lofominhili.farmflow.repository.RecordRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintainer of the monthly partitions of the {@code _record} table.
+ * Every record lands in the partition of the month it was collected in, so queries bounded by date,
+ * such as exports and history pages, only read the partitions of the requested months.
+ * On startup and every day at {@code record-partitions.cron}, the partitions for the current month and the next
+ * {@code months-ahead} months are created, so collections never wait for a partition to be created.
+ * When {@code retention-months} is positive, partitions whose months all lie more than that many months in the past
+ * are detached from the table, which removes their records from the application without a bulk delete.
+ * Detached partitions are kept as standalone tables for archiving, unless {@code drop-detached} is set.
+ * Daily and monthly statistics are read from the rollup tables, so they are not affected by the retention.
+ * Both operations are serialized in the database, so several nodes can run them at the same time.
+ * This component requires an instance of {@link RecordRepository} to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecordPartitionManager {
+
+    @Value("${record-partitions.months-ahead:3}")
+    private int monthsAhead;
+    @Value("${record-partitions.retention-months:0}")
+    private int retentionMonths;
+    @Value("${record-partitions.drop-detached:false}")
+    private boolean dropDetached;
+
+    private final RecordRepository recordRepository;
+
+    private final AtomicLong createdPartitions = new AtomicLong();
+    private final AtomicLong detachedPartitions = new AtomicLong();
+
+    /**
+     * Creates the missing partitions and detaches the partitions past the retention period.
+     */
+    @PostConstruct
+    @Scheduled(cron = "${record-partitions.cron:0 30 0 * * *}")
+    public void maintain() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        try {
+            createPartitions(currentMonth);
+            if (retentionMonths > 0) {
+                detachPartitions(currentMonth.minusMonths(retentionMonths));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not maintain the partitions of the record table", e);
+        }
+    }
+
+    public long getCreatedPartitions() {
+        return createdPartitions.get();
+    }
+
+    public long getDetachedPartitions() {
+        return detachedPartitions.get();
+    }
+
+    private void createPartitions(LocalDate currentMonth) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate month = currentMonth.plusMonths(i);
+            if (Boolean.TRUE.equals(recordRepository.createPartition(month))) {
+                createdPartitions.incrementAndGet();
+                log.info("Created the record partition for {}", month);
+            }
+        }
+    }
+
+    private void detachPartitions(LocalDate cutoff) {
+        List<String> detached = recordRepository.detachPartitionsBefore(cutoff, dropDetached);
+        detachedPartitions.addAndGet(detached.size());
+        if (!detached.isEmpty()) {
+            log.info("Detached the record partitions {} older than {}{}", detached, cutoff, dropDetached ? " and dropped them" : "");
+        }
+    }
+}
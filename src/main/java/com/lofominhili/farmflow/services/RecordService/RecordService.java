@@ -1,12 +1,18 @@
 package com.lofominhili.farmflow.services.RecordService;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.lofominhili.farmflow.dto.ProjectionDTO.RecordFilterDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.RecordExportRequestDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.RecordHistoryRequestDTO;
 import com.lofominhili.farmflow.dto.RequestDTO.StatisticByUserRequestDTO;
 import com.lofominhili.farmflow.dto.RequestDTO.StatisticsByFarmRequestDTO;
+import com.lofominhili.farmflow.dto.ResponseDTO.RecordHistoryPageDTO;
 import com.lofominhili.farmflow.dto.ResponseDTO.StatisticByUserResponseDTO;
 import com.lofominhili.farmflow.dto.ResponseDTO.StatisticsByFarmResponseDTO;
 import com.lofominhili.farmflow.exceptions.NotFoundException;
+import com.lofominhili.farmflow.exceptions.RequestDataValidationFailedException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface RecordService {
@@ -14,6 +20,20 @@ public interface RecordService {
 
     List<StatisticsByFarmResponseDTO> getProductStatisticsByFarm(StatisticsByFarmRequestDTO statisticByFarmRequest);
 
-    void sendStatisticByEmail() throws JsonProcessingException;
+    void writeProductStatisticsByUser(StatisticByUserRequestDTO statisticByUserRequest, OutputStream outputStream) throws NotFoundException, IOException;
+
+    void writeProductStatisticsByFarm(StatisticsByFarmRequestDTO statisticByFarmRequest, OutputStream outputStream) throws IOException;
+
+    RecordFilterDTO resolveExportFilter(RecordExportRequestDTO recordExportRequest) throws NotFoundException;
+
+    void exportRecords(RecordExportRequestDTO recordExportRequest, RecordFilterDTO recordFilter, OutputStream outputStream) throws IOException;
+
+    RecordHistoryPageDTO getRecordHistory(RecordHistoryRequestDTO recordHistoryRequest) throws NotFoundException, RequestDataValidationFailedException;
+
+    RecordHistoryPageDTO getOwnRecordHistory(RecordHistoryRequestDTO recordHistoryRequest) throws NotFoundException, RequestDataValidationFailedException;
+
+    void sendStatisticByEmail();
+
+    void sendWorkerStatisticsByEmail();
 
 }
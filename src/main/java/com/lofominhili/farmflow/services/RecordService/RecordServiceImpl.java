@@ -1,59 +1,112 @@
 package com.lofominhili.farmflow.services.RecordService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lofominhili.farmflow.cache.ProductCatalogCache;
+import com.lofominhili.farmflow.dto.ProjectionDTO.ProductTotalDTO;
+import com.lofominhili.farmflow.dto.ProjectionDTO.ProductWorkerTotalDTO;
+import com.lofominhili.farmflow.dto.ProjectionDTO.RecordDetailsDTO;
+import com.lofominhili.farmflow.dto.ProjectionDTO.RecordFilterDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.RecordExportRequestDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.RecordHistoryRequestDTO;
 import com.lofominhili.farmflow.dto.RequestDTO.StatisticByUserRequestDTO;
 import com.lofominhili.farmflow.dto.RequestDTO.StatisticsByFarmRequestDTO;
+import com.lofominhili.farmflow.dto.ResponseDTO.RecordHistoryPageDTO;
 import com.lofominhili.farmflow.dto.ResponseDTO.StatisticByUserResponseDTO;
 import com.lofominhili.farmflow.dto.ResponseDTO.StatisticsByFarmResponseDTO;
-import com.lofominhili.farmflow.entities.RecordEntity;
-import com.lofominhili.farmflow.entities.UserEntity;
 import com.lofominhili.farmflow.exceptions.NotFoundException;
+import com.lofominhili.farmflow.exceptions.RequestDataValidationFailedException;
+import com.lofominhili.farmflow.repository.RecordDailyRollupRepository;
 import com.lofominhili.farmflow.repository.RecordRepository;
 import com.lofominhili.farmflow.repository.UserRepository;
+import com.lofominhili.farmflow.security.AuthenticatedPrincipal;
+import com.lofominhili.farmflow.services.MailService.MailService;
+import com.lofominhili.farmflow.utils.ExportFormat;
+import com.lofominhili.farmflow.utils.HistoryCursor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Service implementation of {@link RecordService} for managing records and statistics related to products and users.
  * This service provides methods for retrieving product statistics by user, product statistics by farm,
+ * streaming both statistics straight to an output stream, exporting raw records, browsing the collection history page by page,
  * and sending daily statistics via email.
- * This service requires instances of {@link RecordRepository}, {@link UserRepository}, {@link JavaMailSender},
- * and {@link ObjectMapper} to be injected via constructor.
+ * Statistics are read from the daily rollups maintained alongside each collected record.
+ * The daily statistics emails for the admin and for every worker are rendered on a dedicated {@code daily-report} thread
+ * and handed over to {@link MailService}, so neither rendering nor the SMTP server ever holds up the scheduler thread.
+ * This service requires instances of {@link RecordDailyRollupRepository}, {@link RecordRepository}, {@link UserRepository},
+ * {@link ProductCatalogCache}, {@link MailService}, and {@link ObjectMapper} to be injected via constructor.
  *
  * @author daniel
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RecordServiceImpl implements RecordService {
     @Value(value = "${record-service.admin-email}")
     private String adminEmail;
-    @Value(value = "${spring.mail.username}")
-    private String from;
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,date,product_name,measure,email,amount";
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+
+    private final RecordDailyRollupRepository recordDailyRollupRepository;
     private final RecordRepository recordRepository;
     private final UserRepository userRepository;
-    private final JavaMailSender javaMailSender;
+    private final ProductCatalogCache productCatalogCache;
+    private final MailService mailService;
     private final ObjectMapper objectMapper;
 
+    private ExecutorService reportRenderer;
+
+    @PostConstruct
+    public void start() {
+        reportRenderer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "daily-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        reportRenderer.shutdownNow();
+    }
+
     /**
      * Retrieves product statistics by user within the specified date range.
-     * This method first retrieves the user from the user repository based on the provided email.
-     * Then, it retrieves all records associated with that user within the specified date range.
-     * It calculates the sum of product amounts for each product and creates response DTOs
-     * containing product statistics for the user.
+     * This method first looks up the id of the user based on the provided email, without loading the user itself.
+     * Then, it sums the user's daily rollups within the specified date range for each product
+     * and creates response DTOs containing product statistics for the user.
      *
      * @param statisticByUserRequest The {@link StatisticByUserRequestDTO} containing information about the user's email and date range.
      * @return A list of {@link StatisticByUserResponseDTO} objects representing product statistics for the user.
@@ -62,79 +115,341 @@ public class RecordServiceImpl implements RecordService {
      */
     @Override
     public List<StatisticByUserResponseDTO> getProductStatisticsByUser(StatisticByUserRequestDTO statisticByUserRequest) throws NotFoundException {
-        UserEntity user = userRepository.findByEmail(statisticByUserRequest.email())
+        Long userId = userRepository.findIdByEmail(statisticByUserRequest.email())
                 .orElseThrow(() -> new NotFoundException("User with this email was not found!"));
-        List<RecordEntity> records = recordRepository.findAllByUser(user);
-        List<RecordEntity> sortedRecordsByDate = records.stream()
-                .filter(record -> record.getDate().isAfter(statisticByUserRequest.begin().minusDays(1))
-                        && record.getDate().isBefore(statisticByUserRequest.end().plusDays(1)))
-                .toList();
-        List<String> productNames = sortedRecordsByDate.stream()
-                .map(record -> record.getProduct().getName())
-                .distinct()
-                .toList();
 
-        return productNames.stream()
-                .map(name -> new StatisticByUserResponseDTO(name, sortedRecordsByDate.stream()
-                        .filter(record -> record.getProduct().getName().equals(name))
-                        .mapToInt(RecordEntity::getAmount)
-                        .sum(), sortedRecordsByDate.stream()
-                        .filter(record -> record.getProduct().getName().equals(name))
-                        .findAny().get().getProduct().getMeasure())).toList();
+        return recordDailyRollupRepository.sumAmountByProductForUser(userId, statisticByUserRequest.begin(), statisticByUserRequest.end())
+                .stream()
+                .map(total -> new StatisticByUserResponseDTO(total.productName(), total.amount().intValue(), total.measure()))
+                .toList();
     }
 
     /**
      * Retrieves product statistics by farm within the specified date range.
-     * This method retrieves all records within the specified date range.
-     * It calculates the sum of product amounts for each product, grouping them by product name.
+     * This method sums the daily rollups for each product within the specified date range
+     * and fetches the distinct workers who collected each product in the same range.
      * The method creates response DTOs containing product statistics for each product and farm.
      *
      * @param statisticByFarmRequest The {@link StatisticsByFarmRequestDTO} containing the date range for retrieving statistics.
      * @return A list of {@link StatisticsByFarmResponseDTO} objects representing product statistics for each product and farm.
      */
     public List<StatisticsByFarmResponseDTO> getProductStatisticsByFarm(StatisticsByFarmRequestDTO statisticByFarmRequest) {
-        List<RecordEntity> records = recordRepository.findAll();
-        List<RecordEntity> sortedRecordsByDate = records.stream()
-                .filter(record -> record.getDate().isAfter(statisticByFarmRequest.begin().minusDays(1))
-                        && record.getDate().isBefore(statisticByFarmRequest.end().plusDays(1)))
-                .toList();
-        List<String> productNames = sortedRecordsByDate.stream()
-                .map(record -> record.getProduct().getName())
-                .distinct()
+        List<ProductTotalDTO> totals = recordDailyRollupRepository.sumAmountByProduct(statisticByFarmRequest.begin(), statisticByFarmRequest.end());
+        MultiValueMap<String, String> workers = new LinkedMultiValueMap<>();
+        recordDailyRollupRepository.findProductWorkers(statisticByFarmRequest.begin(), statisticByFarmRequest.end())
+                .forEach(worker -> workers.add(worker.productName(), worker.email()));
+
+        return totals.stream()
+                .map(total -> new StatisticsByFarmResponseDTO(
+                        total.productName(),
+                        workers.getOrDefault(total.productName(), List.of()),
+                        total.amount().intValue(),
+                        total.measure()))
                 .toList();
-        MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
-        sortedRecordsByDate.stream()
-                .forEach(record -> map.add(record.getProduct().getName(), record.getUser().getEmail()));
-
-        return productNames.stream()
-                .map(name -> {
-                    Set<String> uniqueUsers = new HashSet<>(Objects.requireNonNull(map.get(name)));
-                    return new StatisticsByFarmResponseDTO(name, uniqueUsers.stream().toList(), sortedRecordsByDate.stream()
-                            .filter(record -> record.getProduct().getName().equals(name))
-                            .mapToInt(RecordEntity::getAmount)
-                            .sum(), sortedRecordsByDate.stream()
-                            .filter(record -> record.getProduct().getName().equals(name))
-                            .findAny().get().getProduct().getMeasure());
-                }).toList();
     }
 
     /**
-     * Sends daily product statistics via email to the admin.
-     * This method is scheduled to run daily at 9:00 PM.
-     * It retrieves product statistics by farm for the current date
-     * and sends them via email to the admin specified in the application properties.
+     * Writes product statistics by user within the specified date range directly to the given output stream.
+     * This method first looks up the id of the user based on the provided email,
+     * so a missing user is reported before anything is written.
+     * Then, it reads the per-product sums through a forward-only cursor and serializes each entry
+     * as soon as it is fetched, keeping memory usage independent of the size of the date range.
      *
-     * @throws JsonProcessingException If there is an error while serializing the product statistics data to JSON format.
+     * @param statisticByUserRequest The {@link StatisticByUserRequestDTO} containing information about the user's email and date range.
+     * @param outputStream           The stream the JSON response is written to.
+     * @throws NotFoundException If the user specified by the email is not found in the {@link UserRepository}.
+     * @throws IOException       If writing to the output stream fails.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void writeProductStatisticsByUser(StatisticByUserRequestDTO statisticByUserRequest, OutputStream outputStream) throws NotFoundException, IOException {
+        Long userId = userRepository.findIdByEmail(statisticByUserRequest.email())
+                .orElseThrow(() -> new NotFoundException("User with this email was not found!"));
+        try (JsonGenerator generator = startStatisticsResponse(outputStream);
+             Stream<ProductTotalDTO> totals = recordDailyRollupRepository.streamAmountByProductForUser(
+                     userId, statisticByUserRequest.begin(), statisticByUserRequest.end())) {
+            for (ProductTotalDTO total : (Iterable<ProductTotalDTO>) totals::iterator) {
+                generator.writeObject(new StatisticByUserResponseDTO(total.productName(), total.amount().intValue(), total.measure()));
+            }
+            finishStatisticsResponse(generator);
+        }
+    }
+
+    /**
+     * Writes product statistics by farm within the specified date range directly to the given output stream.
+     * This method reads per-product and per-worker sums ordered by product through a forward-only cursor.
+     * Each product entry is serialized as soon as all of its rows have been read,
+     * so only the workers of the current product are held in memory.
+     *
+     * @param statisticByFarmRequest The {@link StatisticsByFarmRequestDTO} containing the date range for retrieving statistics.
+     * @param outputStream           The stream the JSON response is written to.
+     * @throws IOException If writing to the output stream fails.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void writeProductStatisticsByFarm(StatisticsByFarmRequestDTO statisticByFarmRequest, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = startStatisticsResponse(outputStream);
+             Stream<ProductWorkerTotalDTO> rows = recordDailyRollupRepository.streamAmountByProductAndWorker(
+                     statisticByFarmRequest.begin(), statisticByFarmRequest.end())) {
+            ProductWorkerTotalDTO current = null;
+            List<String> emails = new ArrayList<>();
+            long amount = 0;
+            for (ProductWorkerTotalDTO row : (Iterable<ProductWorkerTotalDTO>) rows::iterator) {
+                if (current != null && !current.productName().equals(row.productName())) {
+                    generator.writeObject(new StatisticsByFarmResponseDTO(current.productName(), emails, (int) amount, current.measure()));
+                    emails = new ArrayList<>();
+                    amount = 0;
+                }
+                current = row;
+                emails.add(row.email());
+                amount += row.amount();
+            }
+            if (current != null) {
+                generator.writeObject(new StatisticsByFarmResponseDTO(current.productName(), emails, (int) amount, current.measure()));
+            }
+            finishStatisticsResponse(generator);
+        }
+    }
+
+    /**
+     * Resolves the optional product name and email of an export request to their ids.
+     * The product is looked up through the {@link ProductCatalogCache} and the user by id only,
+     * so a missing product or user can be reported before the export response is started.
+     *
+     * @param recordExportRequest The {@link RecordExportRequestDTO} containing the optional product name and email.
+     * @return The {@link RecordFilterDTO} holding the product id and the user id, each {@code null} if not filtered on.
+     * @throws NotFoundException If the product or the user specified in the request does not exist.
+     */
+    @Override
+    public RecordFilterDTO resolveExportFilter(RecordExportRequestDTO recordExportRequest) throws NotFoundException {
+        Long productId = null;
+        if (recordExportRequest.productName() != null) {
+            productId = productCatalogCache.findByName(recordExportRequest.productName())
+                    .orElseThrow(() -> new NotFoundException("Product not found!"))
+                    .getId();
+        }
+        Long userId = null;
+        if (recordExportRequest.email() != null) {
+            userId = userRepository.findIdByEmail(recordExportRequest.email())
+                    .orElseThrow(() -> new NotFoundException("User with this email was not found!"));
+        }
+        return new RecordFilterDTO(productId, userId);
+    }
+
+    /**
+     * Exports the raw records matching the given filters to the given output stream as gzip-compressed CSV or NDJSON.
+     * This method reads the records ordered by date and id through a server-side cursor and writes each one
+     * as soon as it is fetched, so memory usage does not depend on the number of exported records,
+     * and the connection is released as soon as the last record has been written.
+     *
+     * @param recordExportRequest The {@link RecordExportRequestDTO} containing the date range and the format of the export,
+     *                            which defaults to CSV.
+     * @param recordFilter        The {@link RecordFilterDTO} returned by {@link #resolveExportFilter(RecordExportRequestDTO)}.
+     * @param outputStream        The stream the compressed export is written to. It is not closed by this method.
+     * @throws IOException If writing to the output stream fails.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportRecords(RecordExportRequestDTO recordExportRequest, RecordFilterDTO recordFilter, OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        try (Stream<RecordDetailsDTO> records = recordRepository.streamForExport(
+                recordExportRequest.begin(), recordExportRequest.end(), recordFilter.productId(), recordFilter.userId())) {
+            if (recordExportRequest.format() == ExportFormat.NDJSON) {
+                writeNdjson(records, writer);
+            } else {
+                writeCsv(records, writer);
+            }
+        }
+        writer.flush();
+        gzip.finish();
+    }
+
+    /**
+     * Retrieves one page of the collection history, optionally narrowed down to one worker and/or one product.
+     * The history is ordered from the newest record to the oldest by date and id. Each page is found
+     * with keyset pagination: it holds the records strictly after the position encoded in the continuation token,
+     * so every page costs the same index range scan no matter how deep it is.
+     *
+     * @param recordHistoryRequest The {@link RecordHistoryRequestDTO} containing the optional product name, email, page size,
+     *                             and the continuation token returned with the previous page.
+     * @return The {@link RecordHistoryPageDTO} holding the records of the page and the token of the next page,
+     * which is {@code null} on the last page.
+     * @throws NotFoundException                    If the product or the user specified in the request does not exist.
+     * @throws RequestDataValidationFailedException If the continuation token is malformed.
+     */
+    @Override
+    public RecordHistoryPageDTO getRecordHistory(RecordHistoryRequestDTO recordHistoryRequest) throws NotFoundException, RequestDataValidationFailedException {
+        Long userId = null;
+        if (recordHistoryRequest.email() != null) {
+            userId = userRepository.findIdByEmail(recordHistoryRequest.email())
+                    .orElseThrow(() -> new NotFoundException("User with this email was not found!"));
+        }
+        return findRecordHistory(recordHistoryRequest, userId);
+    }
+
+    /**
+     * Retrieves one page of the current user's own collection history, optionally narrowed down to one product.
+     * The email in the request is ignored. Pages are found the same way as in {@link #getRecordHistory(RecordHistoryRequestDTO)}.
+     *
+     * @param recordHistoryRequest The {@link RecordHistoryRequestDTO} containing the optional product name, page size,
+     *                             and the continuation token returned with the previous page.
+     * @return The {@link RecordHistoryPageDTO} holding the records of the page and the token of the next page,
+     * which is {@code null} on the last page.
+     * @throws NotFoundException                    If the product specified in the request does not exist.
+     * @throws RequestDataValidationFailedException If the continuation token is malformed.
+     */
+    @Override
+    public RecordHistoryPageDTO getOwnRecordHistory(RecordHistoryRequestDTO recordHistoryRequest) throws NotFoundException, RequestDataValidationFailedException {
+        AuthenticatedPrincipal principal = (AuthenticatedPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return findRecordHistory(recordHistoryRequest, principal.id());
+    }
+
+    private RecordHistoryPageDTO findRecordHistory(RecordHistoryRequestDTO recordHistoryRequest, Long userId) throws NotFoundException, RequestDataValidationFailedException {
+        Long productId = null;
+        if (recordHistoryRequest.productName() != null) {
+            productId = productCatalogCache.findByName(recordHistoryRequest.productName())
+                    .orElseThrow(() -> new NotFoundException("Product not found!"))
+                    .getId();
+        }
+        HistoryCursor after = recordHistoryRequest.continuation() == null
+                ? HistoryCursor.START
+                : HistoryCursor.decode(recordHistoryRequest.continuation());
+        int pageSize = recordHistoryRequest.pageSize() == null ? DEFAULT_HISTORY_PAGE_SIZE : recordHistoryRequest.pageSize();
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<RecordDetailsDTO> records;
+        if (userId != null && productId != null) {
+            records = recordRepository.findHistoryByUserAndProduct(userId, productId, after.date(), after.id(), limit);
+        } else if (userId != null) {
+            records = recordRepository.findHistoryByUser(userId, after.date(), after.id(), limit);
+        } else if (productId != null) {
+            records = recordRepository.findHistoryByProduct(productId, after.date(), after.id(), limit);
+        } else {
+            records = recordRepository.findHistory(after.date(), after.id(), limit);
+        }
+
+        if (records.size() <= pageSize) {
+            return new RecordHistoryPageDTO(records, null);
+        }
+        RecordDetailsDTO last = records.get(pageSize - 1);
+        return new RecordHistoryPageDTO(records.subList(0, pageSize), new HistoryCursor(last.date(), last.id()).encode());
+    }
+
+    private void writeCsv(Stream<RecordDetailsDTO> records, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        for (RecordDetailsDTO record : (Iterable<RecordDetailsDTO>) records::iterator) {
+            writer.write(String.valueOf(record.id()));
+            writer.write(',');
+            writer.write(String.valueOf(record.date()));
+            writer.write(',');
+            writer.write(escapeCsv(record.productName()));
+            writer.write(',');
+            writer.write(String.valueOf(record.measure()));
+            writer.write(',');
+            writer.write(escapeCsv(record.email()));
+            writer.write(',');
+            writer.write(String.valueOf(record.amount()));
+            writer.write('\n');
+        }
+    }
+
+    private void writeNdjson(Stream<RecordDetailsDTO> records, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        for (RecordDetailsDTO record : (Iterable<RecordDetailsDTO>) records::iterator) {
+            generator.writeObject(record);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private JsonGenerator startStatisticsResponse(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(outputStream);
+        generator.writeStartObject();
+        generator.writeNumberField("statusCode", HttpStatus.OK.value());
+        generator.writeStringField("subject", "get statistics");
+        generator.writeArrayFieldStart("data");
+        return generator;
+    }
+
+    private void finishStatisticsResponse(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Sends daily product statistics via email to the admin.
+     * This method is scheduled to run daily at 9:00 PM and only hands the work over to the {@code daily-report} thread.
+     * There, it retrieves product statistics by farm for the current date from today's daily rollups,
+     * which are kept up to date as collections arrive, and enqueues them in the {@link MailService} outbox
+     * for the admin specified in the application properties.
      */
     @Scheduled(cron = "0 0 21 ? * *")
     @Override
-    public void sendStatisticByEmail() throws JsonProcessingException {
-        SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
-        StatisticsByFarmRequestDTO statisticsByFarmRequestDTO = new StatisticsByFarmRequestDTO(LocalDate.now(), LocalDate.now());
-        simpleMailMessage.setTo(adminEmail);
-        simpleMailMessage.setSubject("Daily statistic");
-        simpleMailMessage.setFrom(from);
-        simpleMailMessage.setText(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(getProductStatisticsByFarm(statisticsByFarmRequestDTO)));
-        javaMailSender.send(simpleMailMessage);
+    public void sendStatisticByEmail() {
+        LocalDate today = LocalDate.now();
+        reportRenderer.execute(() -> enqueueDailyStatistics(today));
+    }
+
+    /**
+     * Sends every worker their own product statistics for the day via email.
+     * This method is scheduled to run daily at 9:05 PM and only hands the work over to the {@code daily-report} thread.
+     * There, the per-product totals of every worker who collected anything today are read with a single query
+     * over today's daily rollups, the emails are rendered in parallel, and all of them are enqueued at once
+     * in the {@link MailService} outbox, which sends them in throttled batches.
+     */
+    @Scheduled(cron = "0 5 21 ? * *")
+    @Override
+    public void sendWorkerStatisticsByEmail() {
+        LocalDate today = LocalDate.now();
+        reportRenderer.execute(() -> enqueueWorkerStatistics(today));
+    }
+
+    private void enqueueWorkerStatistics(LocalDate date) {
+        try {
+            Map<String, List<StatisticByUserResponseDTO>> statisticsByWorker = recordDailyRollupRepository.sumAmountByWorkerAndProduct(date)
+                    .stream()
+                    .collect(Collectors.groupingBy(
+                            ProductWorkerTotalDTO::email,
+                            LinkedHashMap::new,
+                            Collectors.mapping(
+                                    total -> new StatisticByUserResponseDTO(total.productName(), total.amount().intValue(), total.measure()),
+                                    Collectors.toList())));
+            Map<String, String> reports = statisticsByWorker.entrySet()
+                    .parallelStream()
+                    .collect(Collectors.toConcurrentMap(Map.Entry::getKey, entry -> renderReport(entry.getValue())));
+            mailService.enqueueAll("Daily statistic", reports);
+        } catch (RuntimeException e) {
+            log.error("Could not prepare the daily worker statistics emails for {}", date, e);
+        }
+    }
+
+    private String renderReport(Object statistics) {
+        try {
+            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(statistics);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render the statistics report", e);
+        }
+    }
+
+    private void enqueueDailyStatistics(LocalDate date) {
+        try {
+            StatisticsByFarmRequestDTO statisticsByFarmRequestDTO = new StatisticsByFarmRequestDTO(date, date);
+            mailService.enqueue(adminEmail, "Daily statistic", renderReport(getProductStatisticsByFarm(statisticsByFarmRequestDTO)));
+        } catch (RuntimeException e) {
+            log.error("Could not prepare the daily statistics email for {}", date, e);
+        }
     }
 }
@@ -0,0 +1,92 @@
+package com.lofominhili.farmflow.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings.
+ * It answers "definitely absent" or "possibly present": a string that was put into the filter is always reported
+ * as possibly present, while a string that was not is reported as possibly present only with the false positive
+ * rate the filter was sized for. Strings cannot be removed, so a filter is rebuilt instead once its content
+ * has to shrink. The bits are kept in an {@link AtomicLongArray}, so lookups never block and concurrent
+ * insertions never lose a bit.
+ *
+ * @author daniel
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a filter sized for the given number of insertions and false positive rate.
+     *
+     * @param expectedInsertions The number of strings the filter is expected to hold.
+     * @param falsePositiveRate  The acceptable probability of reporting an absent string as present.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long insertions = Math.max(expectedInsertions, 1);
+        long optimalBits = (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max((optimalBits + Long.SIZE - 1) / Long.SIZE, 1);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * Long.SIZE;
+        this.hashCount = Math.max((int) Math.round((double) bitCount / insertions * Math.log(2)), 1);
+    }
+
+    /**
+     * Puts the given string into the filter.
+     *
+     * @param value The string to put.
+     */
+    public void put(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(first + i * second);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, added) -> current | added);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given string may have been put into the filter.
+     *
+     * @param value The string to check.
+     * @return {@code false} if the string has definitely not been put into the filter, {@code true} otherwise.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(first + i * second);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,15 @@
+package com.lofominhili.farmflow.utils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV("csv"),
+
+    NDJSON("ndjson");
+
+    final String extension;
+
+}
@@ -1,7 +1,10 @@
 package com.lofominhili.farmflow.utils;
 
 import com.lofominhili.farmflow.dto.BasicDTO.ErrorDTO;
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -16,6 +19,9 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
  */
 @ControllerAdvice
 public class GlobalExceptionHandler {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     /**
      * Exception handler method for handling all types of exceptions.
      * It returns a ResponseEntity containing an ErrorDTO with details about the occurred exception.
@@ -29,6 +35,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorDTO);
     }
 
+    /**
+     * Exception handler method for handling {@link ServiceOverloadedException}.
+     * It returns a ResponseEntity with the 503 status and a {@code Retry-After} header,
+     * telling the client to retry the request after a short pause.
+     * The body is always written as JSON, so it is also sent to clients of streaming endpoints,
+     * which only accept {@code text/event-stream}.
+     *
+     * @param e The exception to handle.
+     * @return A ResponseEntity containing an ErrorDTO with error details.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorDTO> handleServiceOverloadedException(ServiceOverloadedException e) {
+        ErrorDTO errorDTO = new ErrorDTO(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getClass().getSimpleName(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorDTO);
+    }
+
     /**
      * Utility method for handling validation errors.
      * It constructs an error message string based on the validation results.
@@ -43,4 +68,4 @@ public class GlobalExceptionHandler {
         }
         return message.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.lofominhili.farmflow.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum HarvestPeriod {
+    DAY {
+        @Override
+        public LocalDate startOf(LocalDate date) {
+            return date;
+        }
+    },
+
+    WEEK {
+        @Override
+        public LocalDate startOf(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    };
+
+    /**
+     * Returns the first day of the period that contains the given date.
+     *
+     * @param date The date.
+     * @return The first day of the period.
+     */
+    public abstract LocalDate startOf(LocalDate date);
+}
@@ -0,0 +1,33 @@
+package com.lofominhili.farmflow.utils;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class providing defaults for Hibernate.
+ * It enables JDBC statement batching so that bulk writes, such as batches of collected products,
+ * are sent to the database in groups instead of one statement per row.
+ * Entities draw their ids from pooled sequences, so Hibernate does not need to execute each insert
+ * immediately to learn the generated id, which would otherwise disable insert batching.
+ * Values explicitly configured through {@code spring.jpa.properties} take precedence over these defaults.
+ *
+ * @author daniel
+ */
+@Configuration
+public class HibernateConfig {
+
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    @Bean
+    public HibernatePropertiesCustomizer batchingHibernatePropertiesCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, JDBC_BATCH_SIZE);
+            hibernateProperties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            hibernateProperties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            hibernateProperties.putIfAbsent(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, StandardOptimizerDescriptor.POOLED.getExternalName());
+        };
+    }
+}
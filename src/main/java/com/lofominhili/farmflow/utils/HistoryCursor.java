@@ -0,0 +1,58 @@
+package com.lofominhili.farmflow.utils;
+
+import com.lofominhili.farmflow.exceptions.RequestDataValidationFailedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the collection history, which is ordered from the newest record to the oldest by date and id.
+ * A page of the history holds the records strictly after the cursor, so a page is found with an index range scan
+ * instead of skipping all the previous pages, and its cost does not depend on how deep it is.
+ * Cursors are handed to clients as opaque URL-safe continuation tokens.
+ *
+ * @param date The date of the last record of the previous page.
+ * @param id   The id of the last record of the previous page.
+ * @author daniel
+ */
+public record HistoryCursor(LocalDate date, Long id) {
+
+    /**
+     * The cursor before the newest possible record, i.e. the start of the first page.
+     */
+    public static final HistoryCursor START = new HistoryCursor(LocalDate.of(9999, 12, 31), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Encodes the cursor as a continuation token.
+     *
+     * @return The continuation token.
+     */
+    public String encode() {
+        String position = date.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token produced by {@link #encode()}.
+     *
+     * @param token The continuation token.
+     * @return The cursor encoded in the token.
+     * @throws RequestDataValidationFailedException If the token is malformed.
+     */
+    public static HistoryCursor decode(String token) throws RequestDataValidationFailedException {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new RequestDataValidationFailedException("Invalid continuation token!");
+            }
+            return new HistoryCursor(LocalDate.parse(position.substring(0, separator)), Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RequestDataValidationFailedException("Invalid continuation token!");
+        }
+    }
+}
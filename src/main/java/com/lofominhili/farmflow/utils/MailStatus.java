@@ -0,0 +1,9 @@
+package com.lofominhili.farmflow.utils;
+
+public enum MailStatus {
+    PENDING,
+
+    SENT,
+
+    FAILED
+}
@@ -0,0 +1,186 @@
+package com.lofominhili.farmflow.utils;
+
+import com.lofominhili.farmflow.cache.ProductCatalogCache;
+import com.lofominhili.farmflow.security.PasswordHashingExecutor;
+import com.lofominhili.farmflow.security.PrincipalCache;
+import com.lofominhili.farmflow.security.RevokedTokenStore;
+import com.lofominhili.farmflow.security.TokenRevocationList;
+import com.lofominhili.farmflow.services.MailService.MailServiceImpl;
+import com.lofominhili.farmflow.services.ProductService.CollectionIngestionBuffer;
+import com.lofominhili.farmflow.services.ProductService.HarvestQuotaTracker;
+import com.lofominhili.farmflow.services.ProductService.QuotaProgressBroadcaster;
+import com.lofominhili.farmflow.services.RecordService.RecordPartitionManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Configuration class for metrics.
+ * Actuator exposes everything in the Prometheus format at {@code /actuator/prometheus}, which only the admin role
+ * may access. The defaults in {@code metrics.properties} expose the endpoint and enable latency histograms for
+ * controller endpoints, scheduled jobs and service methods; connection-pool metrics are bound by Spring Boot itself.
+ * On top of that, this class enables Hibernate statistics, so entity loads and query counts are published,
+ * installs the {@link QueryCountInspector} counting statements per request, and binds the internal counters
+ * of caches, buffers and executors as gauges and counters.
+ * Values explicitly configured by the application take precedence over these defaults.
+ *
+ * @author daniel
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statisticsHibernatePropertiesCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, true);
+            hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(ProductCatalogCache productCatalogCache, PrincipalCache principalCache) {
+        return registry -> {
+            FunctionCounter.builder("farmflow.cache.hits", productCatalogCache, ProductCatalogCache::getHits)
+                    .tag("cache", "product-catalog")
+                    .register(registry);
+            FunctionCounter.builder("farmflow.cache.misses", productCatalogCache, ProductCatalogCache::getMisses)
+                    .tag("cache", "product-catalog")
+                    .register(registry);
+            Gauge.builder("farmflow.cache.size", productCatalogCache, ProductCatalogCache::getSize)
+                    .tag("cache", "product-catalog")
+                    .register(registry);
+            FunctionCounter.builder("farmflow.cache.hits", principalCache, PrincipalCache::getHits)
+                    .tag("cache", "principal")
+                    .register(registry);
+            FunctionCounter.builder("farmflow.cache.misses", principalCache, PrincipalCache::getMisses)
+                    .tag("cache", "principal")
+                    .register(registry);
+            Gauge.builder("farmflow.cache.size", principalCache, PrincipalCache::getSize)
+                    .tag("cache", "principal")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder ingestionMetrics(CollectionIngestionBuffer collectionIngestionBuffer) {
+        return registry -> {
+            Gauge.builder("farmflow.ingestion.queue.depth", collectionIngestionBuffer, CollectionIngestionBuffer::getQueueDepth)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.ingestion.batches", collectionIngestionBuffer, CollectionIngestionBuffer::getCommittedBatches)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.ingestion.collections", collectionIngestionBuffer, CollectionIngestionBuffer::getCommittedCollections)
+                    .register(registry);
+            Gauge.builder("farmflow.ingestion.batch.size.max", collectionIngestionBuffer, CollectionIngestionBuffer::getMaxBatchSize)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.ingestion.rejected", collectionIngestionBuffer, CollectionIngestionBuffer::getRejectedSubmissions)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder harvestQuotaMetrics(HarvestQuotaTracker harvestQuotaTracker) {
+        return registry -> {
+            Gauge.builder("farmflow.harvest.quotas", harvestQuotaTracker, HarvestQuotaTracker::getSize)
+                    .register(registry);
+            Gauge.builder("farmflow.harvest.quotas.unflushed", harvestQuotaTracker, HarvestQuotaTracker::getUnflushedAmount)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.harvest.quotas.flushes", harvestQuotaTracker, HarvestQuotaTracker::getFlushes)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.harvest.quotas.flushes.failed", harvestQuotaTracker, HarvestQuotaTracker::getFailedFlushes)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder mailMetrics(MailServiceImpl mailService) {
+        return registry -> {
+            Gauge.builder("farmflow.mail.outbox.pending", mailService, MailServiceImpl::getPendingEmails)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.mail.sent", mailService, MailServiceImpl::getSentEmails)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.mail.attempts.failed", mailService, MailServiceImpl::getFailedAttempts)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.mail.abandoned", mailService, MailServiceImpl::getAbandonedEmails)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder quotaProgressMetrics(QuotaProgressBroadcaster quotaProgressBroadcaster) {
+        return registry -> {
+            Gauge.builder("farmflow.quota.progress.subscribers", quotaProgressBroadcaster, QuotaProgressBroadcaster::getSubscribers)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.quota.progress.sent", quotaProgressBroadcaster, QuotaProgressBroadcaster::getSentUpdates)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.quota.progress.coalesced", quotaProgressBroadcaster, QuotaProgressBroadcaster::getCoalescedUpdates)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.quota.progress.dropped", quotaProgressBroadcaster, QuotaProgressBroadcaster::getDroppedUpdates)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.quota.progress.subscribers.dropped", quotaProgressBroadcaster, QuotaProgressBroadcaster::getDroppedSubscribers)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder recordPartitionMetrics(RecordPartitionManager recordPartitionManager) {
+        return registry -> {
+            FunctionCounter.builder("farmflow.record.partitions.created", recordPartitionManager, RecordPartitionManager::getCreatedPartitions)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.record.partitions.detached", recordPartitionManager, RecordPartitionManager::getDetachedPartitions)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder securityMetrics(
+            RevokedTokenStore revokedTokenStore,
+            TokenRevocationList tokenRevocationList,
+            PasswordHashingExecutor passwordHashingExecutor
+    ) {
+        return registry -> {
+            FunctionCounter.builder("farmflow.revoked.tokens.filter.rejections", revokedTokenStore, RevokedTokenStore::getFilterRejections)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.revoked.tokens.database.lookups", revokedTokenStore, RevokedTokenStore::getDatabaseLookups)
+                    .register(registry);
+            Gauge.builder("farmflow.revoked.users", tokenRevocationList, TokenRevocationList::getSize)
+                    .register(registry);
+            Gauge.builder("farmflow.password.hashing.queue.depth", passwordHashingExecutor, PasswordHashingExecutor::getQueueDepth)
+                    .register(registry);
+            Gauge.builder("farmflow.password.hashing.active", passwordHashingExecutor, PasswordHashingExecutor::getActiveThreads)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.password.hashing.completed", passwordHashingExecutor, PasswordHashingExecutor::getCompletedTasks)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.password.hashing.rejected", passwordHashingExecutor, PasswordHashingExecutor::getRejectedTasks)
+                    .register(registry);
+            FunctionCounter.builder("farmflow.password.hashing.queue.wait", passwordHashingExecutor, executor -> executor.getTotalQueueWaitNanos() / 1e9)
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("farmflow.password.hashing.queue.wait.max", passwordHashingExecutor, executor -> executor.getMaxQueueWaitNanos() / 1e9)
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("farmflow.password.hashing.hash", passwordHashingExecutor, executor -> executor.getTotalHashNanos() / 1e9)
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("farmflow.password.hashing.hash.max", passwordHashingExecutor, executor -> executor.getMaxHashNanos() / 1e9)
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder virtualThreadMetrics(VirtualThreadPinningMonitor virtualThreadPinningMonitor) {
+        return registry -> {
+            FunctionCounter.builder("farmflow.virtual.threads.pinned", virtualThreadPinningMonitor, VirtualThreadPinningMonitor::getPinnedEvents)
+                    .register(registry);
+            Gauge.builder("farmflow.virtual.threads.pinned.max", virtualThreadPinningMonitor, monitor -> monitor.getMaxPinnedNanos() / 1e9)
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.lofominhili.farmflow.utils;
+
+import java.util.Comparator;
+
+/**
+ * Comparator of migration file paths, used by Liquibase to order the files included from {@code db.changelog/migrations/}.
+ * Migration files are named with a numeric prefix, such as {@code 10-record_partitioning.sql}, so they are ordered
+ * by the number instead of alphabetically, which would put {@code 10-} before {@code 2-}.
+ * Files without a numeric prefix are placed after the numbered ones, and ties are ordered by the full path.
+ *
+ * @author daniel
+ */
+public class MigrationFileComparator implements Comparator<String> {
+
+    @Override
+    public int compare(String first, String second) {
+        int result = Long.compare(prefixOf(first), prefixOf(second));
+        return result != 0 ? result : first.compareTo(second);
+    }
+
+    private long prefixOf(String path) {
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        int end = 0;
+        while (end < fileName.length() && end < 18 && Character.isDigit(fileName.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? Long.MAX_VALUE : Long.parseLong(fileName.substring(0, end));
+    }
+}
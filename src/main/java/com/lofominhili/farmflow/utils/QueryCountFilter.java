@@ -0,0 +1,55 @@
+package com.lofominhili.farmflow.utils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Filter recording how many SQL statements every HTTP request executes, authentication included.
+ * The count is collected by {@link QueryCountInspector} and recorded in the {@code farmflow.hibernate.queries.per.request}
+ * distribution summary, tagged with the matched endpoint pattern, so endpoints that suddenly issue N+1 queries stand out.
+ * This filter requires an instance of {@link MeterRegistry} to be injected via constructor.
+ *
+ * @author daniel
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        QueryCountInspector.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = QueryCountInspector.stop();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("farmflow.hibernate.queries.per.request")
+                    .description("SQL statements executed per HTTP request")
+                    .tag("uri", uri == null ? UNKNOWN_URI : uri.toString())
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.lofominhili.farmflow.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} that counts the SQL statements prepared by the current thread.
+ * Counting only happens between {@link #start()} and {@link #stop()}, which {@link QueryCountFilter}
+ * calls around every HTTP request; statements outside of a request are not counted.
+ * The inspector never changes the statements it sees.
+ *
+ * @author daniel
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] statements = STATEMENTS.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting the statements prepared by the current thread.
+     */
+    public static void start() {
+        STATEMENTS.set(new int[1]);
+    }
+
+    /**
+     * Stops counting the statements prepared by the current thread.
+     *
+     * @return The number of statements prepared since {@link #start()}.
+     */
+    public static int stop() {
+        int[] statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements == null ? 0 : statements[0];
+    }
+}
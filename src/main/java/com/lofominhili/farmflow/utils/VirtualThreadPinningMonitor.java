@@ -0,0 +1,86 @@
+package com.lofominhili.farmflow.utils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Optional diagnostics for the virtual-thread mode ({@code spring.threads.virtual.enabled=true}).
+ * A virtual thread that blocks while holding a monitor, i.e. inside a {@code synchronized} block,
+ * or inside a native frame cannot unmount and keeps its carrier thread busy for the whole wait.
+ * When enabled, this component listens to the JFR {@code jdk.VirtualThreadPinned} event in-process and logs every
+ * pinning that lasted longer than {@code threshold-ms} together with the top frames of its stack trace,
+ * so the offending code path can be found without attaching a profiler.
+ *
+ * @author daniel
+ */
+@Slf4j
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    @Value("${diagnostics.virtual-thread-pinning.enabled:false}")
+    private boolean enabled;
+    @Value("${diagnostics.virtual-thread-pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private final AtomicLong pinnedEvents = new AtomicLong();
+    private final AtomicLong maxPinnedNanos = new AtomicLong();
+
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(thresholdMs))
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.get();
+    }
+
+    public long getMaxPinnedNanos() {
+        return maxPinnedNanos.get();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        long pinnedNanos = event.getDuration().toNanos();
+        pinnedEvents.incrementAndGet();
+        maxPinnedNanos.accumulateAndGet(pinnedNanos, Math::max);
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String stackTrace = frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Virtual thread {} was pinned for {} ms{}",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                Duration.ofNanos(pinnedNanos).toMillis(),
+                stackTrace);
+    }
+}
@@ -0,0 +1,88 @@
+--liquibase formatted sql
+
+--changeset farmflow:10-drop_record_user_date_product_index
+--comment: Statistics are read from _record_daily_rollup since migration 3, so nothing queries this index any more, while every insert into _record still maintains it. It is dropped here and not recreated on the partitioned _record.
+DROP INDEX IF EXISTS idx__record_user_date_product;
+
+--changeset farmflow:10-record_partition_functions splitStatements:false
+CREATE OR REPLACE FUNCTION _record_create_partition(month_date date) RETURNS boolean AS
+$$
+DECLARE
+    month_start    date := date_trunc('month', month_date)::date;
+    partition_name text := format('_record_p%s', to_char(month_start, 'YYYY_MM'));
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('_record_partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF _record FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, (month_start + interval '1 month')::date);
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION _record_detach_partitions_before(cutoff date, drop_detached boolean) RETURNS SETOF text AS
+$$
+DECLARE
+    partition_name text;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('_record_partitions'));
+    FOR partition_name IN
+        SELECT child.relname
+        FROM pg_inherits
+                 JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                 JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE parent.relname = '_record'
+          AND child.relname ~ '^_record_p[0-9]{4}_[0-9]{2}$'
+          AND (to_date(substring(child.relname FROM 10), 'YYYY_MM') + interval '1 month')::date <= cutoff
+        ORDER BY child.relname
+        LOOP
+            EXECUTE format('ALTER TABLE _record DETACH PARTITION %I', partition_name);
+            IF drop_detached THEN
+                EXECUTE format('DROP TABLE %I', partition_name);
+            END IF;
+            RETURN NEXT partition_name;
+        END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+--changeset farmflow:10-record_partitioning
+ALTER TABLE _record RENAME TO _record_unpartitioned;
+ALTER TABLE _record_unpartitioned RENAME CONSTRAINT pk__record TO pk__record_unpartitioned;
+ALTER SEQUENCE _record_seq OWNED BY NONE;
+
+CREATE TABLE _record
+(
+    id         BIGINT NOT NULL DEFAULT nextval('_record_seq'),
+    user_id    BIGINT,
+    product_id BIGINT,
+    amount     INTEGER,
+    date       date   NOT NULL,
+    CONSTRAINT pk__record PRIMARY KEY (id, date)
+) PARTITION BY RANGE (date);
+
+ALTER SEQUENCE _record_seq OWNED BY _record.id;
+
+SELECT _record_create_partition(month::date)
+FROM generate_series(
+             date_trunc('month', (SELECT COALESCE(MIN(date), CURRENT_DATE) FROM _record_unpartitioned)),
+             date_trunc('month', CURRENT_DATE) + interval '3 months',
+             interval '1 month') AS month;
+
+INSERT INTO _record (id, user_id, product_id, amount, date)
+SELECT id, user_id, product_id, amount, COALESCE(date, (SELECT MIN(date) FROM _record_unpartitioned), CURRENT_DATE)
+FROM _record_unpartitioned;
+
+DROP TABLE _record_unpartitioned;
+
+ALTER TABLE _record
+    ADD CONSTRAINT FK__RECORD_ON_PRODUCT FOREIGN KEY (product_id) REFERENCES _product (id);
+
+ALTER TABLE _record
+    ADD CONSTRAINT FK__RECORD_ON_USER FOREIGN KEY (user_id) REFERENCES _user (id);
+
+CREATE INDEX idx__record_date_id ON _record (date DESC, id DESC);
+
+CREATE INDEX idx__record_user_date_id ON _record (user_id, date DESC, id DESC);
+
+CREATE INDEX idx__record_product_date_id ON _record (product_id, date DESC, id DESC);
@@ -0,0 +1,3 @@
+ALTER TABLE _revoked_token
+    ALTER COLUMN expires_at TYPE TIMESTAMPTZ,
+    ALTER COLUMN revoked_at TYPE TIMESTAMPTZ;
@@ -0,0 +1,4 @@
+ALTER TABLE _mail_outbox
+    ALTER COLUMN next_attempt_at TYPE TIMESTAMPTZ,
+    ALTER COLUMN created_at TYPE TIMESTAMPTZ,
+    ALTER COLUMN sent_at TYPE TIMESTAMPTZ;
@@ -0,0 +1 @@
+CREATE INDEX idx__record_user_date_product ON _record (user_id, date, product_id);
@@ -0,0 +1,25 @@
+CREATE TABLE _record_daily_rollup
+(
+    date         date   NOT NULL,
+    product_id   BIGINT NOT NULL,
+    user_id      BIGINT NOT NULL,
+    amount       BIGINT NOT NULL DEFAULT 0,
+    record_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk__record_daily_rollup PRIMARY KEY (date, product_id, user_id)
+);
+
+ALTER TABLE _record_daily_rollup
+    ADD CONSTRAINT FK__RECORD_DAILY_ROLLUP_ON_PRODUCT FOREIGN KEY (product_id) REFERENCES _product (id);
+
+ALTER TABLE _record_daily_rollup
+    ADD CONSTRAINT FK__RECORD_DAILY_ROLLUP_ON_USER FOREIGN KEY (user_id) REFERENCES _user (id);
+
+CREATE INDEX idx__record_daily_rollup_user_date ON _record_daily_rollup (user_id, date);
+
+INSERT INTO _record_daily_rollup (date, product_id, user_id, amount, record_count)
+SELECT date, product_id, user_id, COALESCE(SUM(amount), 0), COUNT(*)
+FROM _record
+WHERE date IS NOT NULL
+  AND product_id IS NOT NULL
+  AND user_id IS NOT NULL
+GROUP BY date, product_id, user_id;
@@ -0,0 +1,24 @@
+CREATE SEQUENCE _harvest_rate_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE _product_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE _record_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE _user_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('_harvest_rate_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM _harvest_rate), false);
+SELECT setval('_product_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM _product), false);
+SELECT setval('_record_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM _record), false);
+SELECT setval('_user_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM _user), false);
+
+ALTER TABLE _harvest_rate ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE _product ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE _record ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE _user ALTER COLUMN id DROP IDENTITY;
+
+ALTER TABLE _harvest_rate ALTER COLUMN id SET DEFAULT nextval('_harvest_rate_seq');
+ALTER TABLE _product ALTER COLUMN id SET DEFAULT nextval('_product_seq');
+ALTER TABLE _record ALTER COLUMN id SET DEFAULT nextval('_record_seq');
+ALTER TABLE _user ALTER COLUMN id SET DEFAULT nextval('_user_seq');
+
+ALTER SEQUENCE _harvest_rate_seq OWNED BY _harvest_rate.id;
+ALTER SEQUENCE _product_seq OWNED BY _product.id;
+ALTER SEQUENCE _record_seq OWNED BY _record.id;
+ALTER SEQUENCE _user_seq OWNED BY _user.id;
@@ -0,0 +1 @@
+ALTER TABLE _user ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+CREATE TABLE _revoked_token
+(
+    token_id   VARCHAR(36) NOT NULL,
+    user_id    BIGINT,
+    expires_at TIMESTAMP   NOT NULL,
+    revoked_at TIMESTAMP   NOT NULL,
+    CONSTRAINT pk__revoked_token PRIMARY KEY (token_id)
+);
+
+ALTER TABLE _revoked_token
+    ADD CONSTRAINT FK__REVOKED_TOKEN_ON_USER FOREIGN KEY (user_id) REFERENCES _user (id);
+
+CREATE INDEX idx__revoked_token_expires_at ON _revoked_token (expires_at);
+
+CREATE INDEX idx__revoked_token_revoked_at ON _revoked_token (revoked_at);
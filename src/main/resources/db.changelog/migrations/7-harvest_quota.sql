@@ -0,0 +1,28 @@
+DELETE
+FROM _harvest_rate h
+    USING _harvest_rate newer
+WHERE h.product_id = newer.product_id
+  AND h.id < newer.id;
+
+DELETE
+FROM _harvest_rate
+WHERE product_id IS NULL;
+
+ALTER TABLE _harvest_rate ADD COLUMN rate INTEGER;
+ALTER TABLE _harvest_rate ADD COLUMN period VARCHAR(255);
+ALTER TABLE _harvest_rate ADD COLUMN period_start date;
+
+UPDATE _harvest_rate
+SET amount       = COALESCE(amount, 0),
+    rate         = COALESCE(amount, 0),
+    period       = 'DAY',
+    period_start = CURRENT_DATE;
+
+ALTER TABLE _harvest_rate ALTER COLUMN product_id SET NOT NULL;
+ALTER TABLE _harvest_rate ALTER COLUMN amount SET NOT NULL;
+ALTER TABLE _harvest_rate ALTER COLUMN rate SET NOT NULL;
+ALTER TABLE _harvest_rate ALTER COLUMN period SET NOT NULL;
+ALTER TABLE _harvest_rate ALTER COLUMN period_start SET NOT NULL;
+
+ALTER TABLE _harvest_rate
+    ADD CONSTRAINT uc__harvest_rate_product UNIQUE (product_id);
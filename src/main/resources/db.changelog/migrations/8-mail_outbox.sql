@@ -0,0 +1,20 @@
+CREATE SEQUENCE _mail_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE _mail_outbox
+(
+    id              BIGINT       NOT NULL DEFAULT nextval('_mail_outbox_seq'),
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    body            TEXT         NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP    NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP    NOT NULL,
+    sent_at         TIMESTAMP,
+    CONSTRAINT pk__mail_outbox PRIMARY KEY (id)
+);
+
+ALTER SEQUENCE _mail_outbox_seq OWNED BY _mail_outbox.id;
+
+CREATE INDEX idx__mail_outbox_status_next_attempt_at ON _mail_outbox (status, next_attempt_at);
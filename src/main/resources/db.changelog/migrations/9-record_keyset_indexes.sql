@@ -0,0 +1,5 @@
+CREATE INDEX idx__record_date_id ON _record (date DESC, id DESC);
+
+CREATE INDEX idx__record_user_date_id ON _record (user_id, date DESC, id DESC);
+
+CREATE INDEX idx__record_product_date_id ON _record (product_id, date DESC, id DESC);
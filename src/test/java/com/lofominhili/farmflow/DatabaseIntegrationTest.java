@@ -0,0 +1,55 @@
+package com.lofominhili.farmflow;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Base class of the integration tests that need a PostgreSQL database.
+ * The tests run against the database given by the {@code test.datasource.url}, {@code test.datasource.username}
+ * and {@code test.datasource.password} system properties, such as the one from {@code compose.yaml},
+ * and otherwise against a PostgreSQL 15 container started by Testcontainers and shared by all test classes.
+ * Without either of them the tests are skipped.
+ * Liquibase applies all migrations on startup, and every test creates its own products and users,
+ * so the tests never depend on each other's data.
+ *
+ * @author daniel
+ */
+@SpringBootTest
+public abstract class DatabaseIntegrationTest {
+
+    private static final String DATASOURCE_URL = System.getProperty("test.datasource.url");
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @BeforeAll
+    static void requireDatabase() {
+        Assumptions.assumeTrue(DATASOURCE_URL != null || DockerClientFactory.instance().isDockerAvailable(),
+                "Neither test.datasource.url nor Docker is available");
+    }
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        if (DATASOURCE_URL != null) {
+            registry.add("spring.datasource.url", () -> DATASOURCE_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("test.datasource.username", "admin"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.datasource.password", "1111"));
+            return;
+        }
+        registry.add("spring.datasource.url", () -> postgres().getJdbcUrl());
+        registry.add("spring.datasource.username", () -> postgres().getUsername());
+        registry.add("spring.datasource.password", () -> postgres().getPassword());
+    }
+
+    private static synchronized PostgreSQLContainer<?> postgres() {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15");
+            postgres.start();
+        }
+        return postgres;
+    }
+}
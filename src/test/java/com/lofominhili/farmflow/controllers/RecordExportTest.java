@@ -0,0 +1,71 @@
+package com.lofominhili.farmflow.controllers;
+
+import com.lofominhili.farmflow.DatabaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests of the record export endpoint.
+ * A product or user that does not exist must be reported as a JSON error, before the response is switched
+ * to a gzip attachment, and an export with existing filters must be sent as a gzip attachment.
+ *
+ * @author daniel
+ */
+@AutoConfigureMockMvc
+class RecordExportTest extends DatabaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void missingProductIsReportedAsJson() throws Exception {
+        mockMvc.perform(export("{\"begin\": \"%s\", \"end\": \"%s\", \"product_name\": \"missing-%s\"}"
+                        .formatted(LocalDate.now(), LocalDate.now(), UUID.randomUUID())))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION))
+                .andExpect(jsonPath("$.exception").value("NotFoundException"));
+    }
+
+    @Test
+    void missingUserIsReportedAsJson() throws Exception {
+        mockMvc.perform(export("{\"begin\": \"%s\", \"end\": \"%s\", \"email\": \"missing-%s@farm.com\"}"
+                        .formatted(LocalDate.now(), LocalDate.now(), UUID.randomUUID())))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION))
+                .andExpect(jsonPath("$.exception").value("NotFoundException"));
+    }
+
+    @Test
+    void recordsAreExportedAsGzipAttachment() throws Exception {
+        mockMvc.perform(export("{\"begin\": \"%s\", \"end\": \"%s\", \"format\": \"NDJSON\"}"
+                        .formatted(LocalDate.now(), LocalDate.now())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"records.ndjson.gz\""));
+    }
+
+    private static MockHttpServletRequestBuilder export(String body) {
+        return get("/api/admin/export/records")
+                .with(user("admin@farm.com").authorities(new SimpleGrantedAuthority("ADMIN")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+}
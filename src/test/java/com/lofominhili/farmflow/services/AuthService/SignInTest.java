@@ -0,0 +1,85 @@
+package com.lofominhili.farmflow.services.AuthService;
+
+import com.lofominhili.farmflow.DatabaseIntegrationTest;
+import com.lofominhili.farmflow.dto.EntityDTO.UserDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.SignInRequest;
+import com.lofominhili.farmflow.entities.UserEntity;
+import com.lofominhili.farmflow.exceptions.AuthenticationFailedException;
+import com.lofominhili.farmflow.repository.UserRepository;
+import com.lofominhili.farmflow.security.PasswordHashingExecutor;
+import com.lofominhili.farmflow.services.JwtService.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of signing in, where the user is looked up on the request thread
+ * and only the password is verified on the {@link PasswordHashingExecutor}.
+ *
+ * @author daniel
+ */
+class SignInTest extends DatabaseIntegrationTest {
+
+    private static final String PASSWORD = "correct-password";
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Test
+    void validCredentialsReturnTokenOfTheUser() throws Exception {
+        String email = register();
+        long completedTasks = passwordHashingExecutor.getCompletedTasks();
+
+        String token = authService.signIn(new SignInRequest(email, PASSWORD));
+
+        assertEquals(email, jwtService.extractEmail(token));
+        assertEquals(completedTasks + 1, passwordHashingExecutor.getCompletedTasks());
+    }
+
+    @Test
+    void wrongPasswordIsRejected() throws Exception {
+        String email = register();
+
+        AuthenticationFailedException e = assertThrows(AuthenticationFailedException.class,
+                () -> authService.signIn(new SignInRequest(email, "wrong-password")));
+        assertEquals("Bad credentials", e.getMessage());
+    }
+
+    @Test
+    void unknownEmailIsRejectedAfterVerifyingAPassword() {
+        long completedTasks = passwordHashingExecutor.getCompletedTasks();
+
+        AuthenticationFailedException e = assertThrows(AuthenticationFailedException.class,
+                () -> authService.signIn(new SignInRequest("unknown-" + UUID.randomUUID() + "@farm.com", PASSWORD)));
+        assertEquals("Bad credentials", e.getMessage());
+        assertEquals(completedTasks + 1, passwordHashingExecutor.getCompletedTasks());
+    }
+
+    @Test
+    void firedUserIsRejected() throws Exception {
+        String email = register();
+        UserEntity user = userRepository.findByEmail(email).orElseThrow();
+        user.setFired(true);
+        userRepository.save(user);
+
+        AuthenticationFailedException e = assertThrows(AuthenticationFailedException.class,
+                () -> authService.signIn(new SignInRequest(email, PASSWORD)));
+        assertEquals("User is disabled", e.getMessage());
+    }
+
+    private String register() throws Exception {
+        String email = "sign-in-" + UUID.randomUUID() + "@farm.com";
+        authService.registerUser(new UserDTO("Worker", "Sign", "In", PASSWORD, email));
+        return email;
+    }
+}
@@ -0,0 +1,73 @@
+package com.lofominhili.farmflow.services.JwtService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the verified-token cache of {@link JwtServiceImpl}: it never grows past its maximum size,
+ * is trimmed in bulk once it is full, and expired tokens are removed by the sweep.
+ *
+ * @author daniel
+ */
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET_KEY = "Zm9yLXRlc3RzLW9ubHktZmFybWZsb3ctand0LXNpZ25pbmcta2V5LW9mLTY0LWJ5dGVzLWxvbmctZW5vdWdo";
+    private static final int MAX_SIZE = 100;
+
+    private JwtServiceImpl jwtService;
+
+    @BeforeEach
+    void createService() {
+        jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtService, "tokenLifetime", 3_600_000);
+        ReflectionTestUtils.setField(jwtService, "verifiedTokenCacheSize", MAX_SIZE);
+        jwtService.init();
+    }
+
+    @Test
+    void fullCacheIsTrimmedInBulk() throws Exception {
+        for (int i = 0; i < MAX_SIZE; i++) {
+            jwtService.verify(token(i));
+        }
+        assertEquals(MAX_SIZE, cache().size());
+
+        jwtService.verify(token(MAX_SIZE));
+        assertEquals(MAX_SIZE * 9 / 10 + 1, cache().size());
+
+        for (int i = MAX_SIZE + 1; i < MAX_SIZE * 20; i++) {
+            jwtService.verify(token(i));
+            assertTrue(cache().size() <= MAX_SIZE, "the cache grew past its maximum size");
+        }
+    }
+
+    @Test
+    void sweepRemovesExpiredTokens() throws Exception {
+        ReflectionTestUtils.setField(jwtService, "tokenLifetime", 2000);
+        for (int i = 0; i < 10; i++) {
+            jwtService.verify(token(i));
+        }
+        assertEquals(10, cache().size());
+
+        Thread.sleep(3100);
+        jwtService.sweepVerifiedTokens();
+
+        assertEquals(0, cache().size());
+    }
+
+    private String token(int i) {
+        return jwtService.generateToken(User.withUsername("worker-" + i + "@farm.com").password("not-used").build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, VerifiedToken> cache() {
+        return (Map<String, VerifiedToken>) ReflectionTestUtils.getField(jwtService, "verifiedTokens");
+    }
+}
@@ -0,0 +1,110 @@
+package com.lofominhili.farmflow.services.MailService;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.lofominhili.farmflow.DatabaseIntegrationTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * End-to-end test of the mail outbox against PostgreSQL and a GreenMail SMTP server.
+ * An enqueued email must be delivered by the dispatcher and marked as sent,
+ * and an email that fails because the SMTP server is down must be retried after its backoff and delivered then.
+ *
+ * @author daniel
+ */
+@TestPropertySource(properties = {
+        "mail.outbox.initial-backoff-ms=2000",
+        "mail.outbox.poll-ms=200"
+})
+class MailOutboxDeliveryTest extends DatabaseIntegrationTest {
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MailService mailService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void enqueuedEmailIsSentAndMarkedAsSent() throws Exception {
+        String recipient = recipient();
+
+        mailService.enqueue(recipient, "Outbox test", "Delivered through the outbox");
+
+        await(() -> "SENT".equals(mail(recipient).get("status")));
+        Map<String, Object> mail = mail(recipient);
+        assertEquals(1, mail.get("attempts"));
+        assertNotNull(mail.get("sent_at"));
+        assertNull(mail.get("last_error"));
+
+        MimeMessage[] received = greenMail.getReceivedMessagesForDomain(recipient);
+        assertEquals(1, received.length);
+        assertEquals("Outbox test", received[0].getSubject());
+        assertEquals("Delivered through the outbox", GreenMailUtil.getBody(received[0]).trim());
+    }
+
+    @Test
+    void failedEmailIsRetriedAfterBackoff() throws Exception {
+        String recipient = recipient();
+        greenMail.stop();
+
+        mailService.enqueue(recipient, "Retry test", "Delivered on the second attempt");
+
+        await(() -> ((Integer) mail(recipient).get("attempts")) > 0);
+        Map<String, Object> failed = mail(recipient);
+        greenMail.start();
+        assertEquals("PENDING", failed.get("status"));
+        assertEquals(1, failed.get("attempts"));
+        assertNotNull(failed.get("last_error"));
+        assertNull(failed.get("sent_at"));
+        assertTrue(((Timestamp) failed.get("next_attempt_at")).after((Timestamp) failed.get("created_at")),
+                "the retry is scheduled after a backoff");
+
+        await(() -> "SENT".equals(mail(recipient).get("status")));
+        Map<String, Object> sent = mail(recipient);
+        assertEquals(2, sent.get("attempts"));
+        assertNull(sent.get("last_error"));
+        assertTrue(((Timestamp) sent.get("sent_at")).compareTo((Timestamp) failed.get("next_attempt_at")) >= 0,
+                "the email is not retried before its backoff has passed");
+        assertEquals(1, greenMail.getReceivedMessagesForDomain(recipient).length);
+    }
+
+    private Map<String, Object> mail(String recipient) {
+        return jdbcTemplate.queryForMap("SELECT * FROM _mail_outbox WHERE recipient = ?", recipient);
+    }
+
+    private static String recipient() {
+        return "outbox-" + UUID.randomUUID() + "@farm.com";
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition was not met within " + TIMEOUT_SECONDS + " seconds");
+            }
+            Thread.sleep(50);
+        }
+    }
+}
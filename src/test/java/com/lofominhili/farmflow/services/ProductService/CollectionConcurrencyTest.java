@@ -0,0 +1,186 @@
+package com.lofominhili.farmflow.services.ProductService;
+
+import com.lofominhili.farmflow.DatabaseIntegrationTest;
+import com.lofominhili.farmflow.dto.EntityDTO.ProductDTO;
+import com.lofominhili.farmflow.entities.ProductEntity;
+import com.lofominhili.farmflow.entities.UserEntity;
+import com.lofominhili.farmflow.repository.ProductRepository;
+import com.lofominhili.farmflow.repository.UserRepository;
+import com.lofominhili.farmflow.security.AuthenticatedPrincipal;
+import com.lofominhili.farmflow.utils.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Stress test of concurrent collections against PostgreSQL.
+ * Many threads collect the same products at once, and afterwards the product totals, the daily rollups
+ * and the stored records must all add up to exactly the amounts that were submitted, so no update is lost.
+ *
+ * @author daniel
+ */
+class CollectionConcurrencyTest extends DatabaseIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int COLLECTIONS_PER_THREAD = 100;
+    private static final int PRODUCTS = 4;
+    private static final int BATCH_SIZE = 10;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CollectionWriter collectionWriter;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentAddCollectedProductLosesNoUpdates() throws Exception {
+        ProductEntity product = createProduct();
+        List<UserEntity> workers = createWorkers();
+
+        long submitted = runConcurrently(thread -> {
+            UserEntity worker = workers.get(thread);
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    AuthenticatedPrincipal.from(worker), null, List.of()));
+            Random random = new Random(thread);
+            long amount = 0;
+            try {
+                for (int i = 0; i < COLLECTIONS_PER_THREAD; i++) {
+                    int collected = 1 + random.nextInt(10);
+                    productService.addCollectedProduct(new ProductDTO(product.getName(), product.getMeasure().toString(), collected));
+                    amount += collected;
+                }
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+            return amount;
+        });
+
+        assertTotals(product, submitted, (long) THREADS * COLLECTIONS_PER_THREAD);
+    }
+
+    @Test
+    void concurrentBatchedWritesLoseNoUpdates() throws Exception {
+        List<ProductEntity> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(createProduct());
+        }
+        List<UserEntity> workers = createWorkers();
+        long[][] submitted = new long[THREADS][PRODUCTS];
+        long[][] collections = new long[THREADS][PRODUCTS];
+
+        runConcurrently(thread -> {
+            UserEntity worker = workers.get(thread);
+            Random random = new Random(thread);
+            for (int i = 0; i < COLLECTIONS_PER_THREAD / BATCH_SIZE; i++) {
+                List<CollectionWriter.CollectedProduct> batch = new ArrayList<>();
+                for (int j = 0; j < BATCH_SIZE; j++) {
+                    int index = random.nextInt(PRODUCTS);
+                    int collected = 1 + random.nextInt(10);
+                    batch.add(new CollectionWriter.CollectedProduct(products.get(index), worker, collected));
+                    submitted[thread][index] += collected;
+                    collections[thread][index]++;
+                }
+                collectionWriter.write(batch);
+            }
+            return 0L;
+        });
+
+        for (int index = 0; index < PRODUCTS; index++) {
+            long amount = 0;
+            long records = 0;
+            for (int thread = 0; thread < THREADS; thread++) {
+                amount += submitted[thread][index];
+                records += collections[thread][index];
+            }
+            assertTotals(products.get(index), amount, records);
+        }
+    }
+
+    private long runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int index = thread;
+                Callable<Long> callable = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                futures.add(executor.submit(callable));
+            }
+            start.countDown();
+            long total = 0;
+            for (Future<Long> future : futures) {
+                total += future.get(2, TimeUnit.MINUTES);
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertTotals(ProductEntity product, long submitted, long records) {
+        assertEquals(submitted, productRepository.findById(product.getId()).orElseThrow().getAmount().longValue(),
+                "product amount");
+        assertEquals(submitted, jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM _record_daily_rollup WHERE product_id = ?", Long.class, product.getId()),
+                "daily rollup amount");
+        assertEquals(records, jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(record_count), 0) FROM _record_daily_rollup WHERE product_id = ?", Long.class, product.getId()),
+                "daily rollup record count");
+        assertEquals(submitted, jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM _record WHERE product_id = ?", Long.class, product.getId()),
+                "record amount");
+        assertEquals(records, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM _record WHERE product_id = ?", Long.class, product.getId()),
+                "record count");
+    }
+
+    private ProductEntity createProduct() throws Exception {
+        String name = "stress-" + UUID.randomUUID();
+        productService.registerProduct(new ProductDTO(name, "kilogram", 0));
+        return productRepository.findByName(name).orElseThrow();
+    }
+
+    private List<UserEntity> createWorkers() {
+        List<UserEntity> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            UserEntity worker = new UserEntity();
+            worker.setName("Worker");
+            worker.setSurname("Stress");
+            worker.setPatronymic("Test");
+            worker.setEmail("stress-" + UUID.randomUUID() + "@farm.com");
+            worker.setPassword("not-used");
+            worker.setRole(Role.USER);
+            worker.setFired(false);
+            workers.add(worker);
+        }
+        return userRepository.saveAll(workers);
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        long run(int thread) throws Exception;
+    }
+}
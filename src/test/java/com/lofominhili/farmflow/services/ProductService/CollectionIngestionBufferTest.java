@@ -0,0 +1,77 @@
+package com.lofominhili.farmflow.services.ProductService;
+
+import com.lofominhili.farmflow.exceptions.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests that callers of {@link CollectionIngestionBuffer} are never left waiting forever:
+ * a group commit that takes too long and a writer thread that dies both release the caller
+ * with a {@link ServiceOverloadedException}, and a dead writer stops the buffer from accepting more collections.
+ *
+ * @author daniel
+ */
+class CollectionIngestionBufferTest {
+
+    private static final List<CollectionWriter.CollectedProduct> COLLECTIONS = List.of(
+            new CollectionWriter.CollectedProduct(null, null, 1));
+
+    private final CollectionWriter collectionWriter = mock(CollectionWriter.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private CollectionIngestionBuffer buffer;
+
+    @AfterEach
+    void stopBuffer() throws InterruptedException {
+        release.countDown();
+        buffer.stop();
+    }
+
+    @Test
+    void slowGroupCommitTimesOut() {
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(collectionWriter).write(anyList());
+        buffer = startBuffer();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> assertThrows(ServiceOverloadedException.class, () -> buffer.submit(COLLECTIONS)));
+    }
+
+    @Test
+    void deadWriterFailsPendingAndLaterSubmissions() {
+        doThrow(new AssertionError("writer failure")).when(collectionWriter).write(anyList());
+        buffer = startBuffer();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThrows(ServiceOverloadedException.class, () -> buffer.submit(COLLECTIONS));
+            assertThrows(ServiceOverloadedException.class, () -> buffer.submit(COLLECTIONS));
+        });
+    }
+
+    private CollectionIngestionBuffer startBuffer() {
+        CollectionIngestionBuffer started = new CollectionIngestionBuffer(collectionWriter);
+        ReflectionTestUtils.setField(started, "enabled", true);
+        ReflectionTestUtils.setField(started, "capacity", 10);
+        ReflectionTestUtils.setField(started, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(started, "maxDelayMs", 5L);
+        ReflectionTestUtils.setField(started, "offerTimeoutMs", 50L);
+        ReflectionTestUtils.setField(started, "commitTimeoutMs", TimeUnit.SECONDS.toMillis(1));
+        started.start();
+        return started;
+    }
+}
@@ -0,0 +1,66 @@
+package com.lofominhili.farmflow.services.ProductService;
+
+import com.lofominhili.farmflow.DatabaseIntegrationTest;
+import com.lofominhili.farmflow.dto.EntityDTO.ProductDTO;
+import com.lofominhili.farmflow.entities.ProductEntity;
+import com.lofominhili.farmflow.repository.ProductRepository;
+import com.lofominhili.farmflow.utils.HarvestPeriod;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tests that {@link HarvestQuotaTracker} follows changes made to {@code _harvest_rate} by other nodes:
+ * a deleted quota is dropped from memory and a replaced quota is taken over with its new rate.
+ *
+ * @author daniel
+ */
+class HarvestQuotaReconciliationTest extends DatabaseIntegrationTest {
+
+    @Autowired
+    private HarvestQuotaTracker harvestQuotaTracker;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deletedQuotaIsDropped() throws Exception {
+        ProductEntity product = createProduct();
+        harvestQuotaTracker.reset(product.getId(), 100, HarvestPeriod.DAY);
+        assertEquals(90, harvestQuotaTracker.consume(product.getId(), 10));
+        harvestQuotaTracker.flush();
+
+        jdbcTemplate.update("DELETE FROM _harvest_rate WHERE product_id = ?", product.getId());
+        harvestQuotaTracker.flush();
+
+        assertFalse(harvestQuotaTracker.getAmountsLeft().containsKey(product.getId()));
+        assertEquals(0, harvestQuotaTracker.consume(product.getId(), 10));
+    }
+
+    @Test
+    void replacedQuotaIsTakenOver() throws Exception {
+        ProductEntity product = createProduct();
+        harvestQuotaTracker.reset(product.getId(), 100, HarvestPeriod.DAY);
+        harvestQuotaTracker.consume(product.getId(), 10);
+        harvestQuotaTracker.flush();
+
+        jdbcTemplate.update("UPDATE _harvest_rate SET rate = 500, amount = 500 WHERE product_id = ?", product.getId());
+        harvestQuotaTracker.flush();
+
+        assertEquals(500, harvestQuotaTracker.getAmountsLeft().get(product.getId()));
+    }
+
+    private ProductEntity createProduct() throws Exception {
+        String name = "quota-" + UUID.randomUUID();
+        productService.registerProduct(new ProductDTO(name, "kilogram", 0));
+        return productRepository.findByName(name).orElseThrow();
+    }
+}
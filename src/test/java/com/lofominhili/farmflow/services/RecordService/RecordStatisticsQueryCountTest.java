@@ -0,0 +1,113 @@
+package com.lofominhili.farmflow.services.RecordService;
+
+import com.lofominhili.farmflow.DatabaseIntegrationTest;
+import com.lofominhili.farmflow.dto.EntityDTO.ProductDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.StatisticByUserRequestDTO;
+import com.lofominhili.farmflow.dto.RequestDTO.StatisticsByFarmRequestDTO;
+import com.lofominhili.farmflow.dto.ResponseDTO.StatisticByUserResponseDTO;
+import com.lofominhili.farmflow.dto.ResponseDTO.StatisticsByFarmResponseDTO;
+import com.lofominhili.farmflow.entities.ProductEntity;
+import com.lofominhili.farmflow.entities.UserEntity;
+import com.lofominhili.farmflow.repository.ProductRepository;
+import com.lofominhili.farmflow.repository.UserRepository;
+import com.lofominhili.farmflow.services.ProductService.CollectionWriter;
+import com.lofominhili.farmflow.services.ProductService.ProductService;
+import com.lofominhili.farmflow.utils.QueryCountInspector;
+import com.lofominhili.farmflow.utils.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the statistics read paths run a fixed number of SQL statements per call,
+ * no matter how many products, workers and records fall into the requested range.
+ * The statements are counted with {@link QueryCountInspector} around each call.
+ *
+ * @author daniel
+ */
+class RecordStatisticsQueryCountTest extends DatabaseIntegrationTest {
+
+    private static final int PRODUCTS = 3;
+    private static final int WORKERS = 4;
+
+    @Autowired
+    private RecordService recordService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CollectionWriter collectionWriter;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserEntity worker;
+
+    @BeforeEach
+    void seedRecords() throws Exception {
+        List<ProductEntity> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            String name = "statistics-" + UUID.randomUUID();
+            productService.registerProduct(new ProductDTO(name, "kilogram", 0));
+            products.add(productRepository.findByName(name).orElseThrow());
+        }
+        List<UserEntity> workers = new ArrayList<>();
+        for (int i = 0; i < WORKERS; i++) {
+            workers.add(createWorker());
+        }
+        List<CollectionWriter.CollectedProduct> batch = new ArrayList<>();
+        for (ProductEntity product : products) {
+            for (UserEntity collector : workers) {
+                batch.add(new CollectionWriter.CollectedProduct(product, collector, 5));
+            }
+        }
+        collectionWriter.write(batch);
+        worker = workers.get(0);
+    }
+
+    @Test
+    void statisticsByUserRunTwoStatements() throws Exception {
+        LocalDate today = LocalDate.now();
+
+        QueryCountInspector.start();
+        List<StatisticByUserResponseDTO> statistics = recordService.getProductStatisticsByUser(
+                new StatisticByUserRequestDTO(today, today, worker.getEmail()));
+        int statements = QueryCountInspector.stop();
+
+        assertEquals(PRODUCTS, statistics.size());
+        assertEquals(2, statements, "statements per statistics by user call");
+    }
+
+    @Test
+    void statisticsByFarmRunTwoStatements() {
+        LocalDate today = LocalDate.now();
+
+        QueryCountInspector.start();
+        List<StatisticsByFarmResponseDTO> statistics = recordService.getProductStatisticsByFarm(
+                new StatisticsByFarmRequestDTO(today, today));
+        int statements = QueryCountInspector.stop();
+
+        assertFalse(statistics.isEmpty());
+        assertEquals(2, statements, "statements per statistics by farm call");
+    }
+
+    private UserEntity createWorker() {
+        UserEntity user = new UserEntity();
+        user.setName("Worker");
+        user.setSurname("Statistics");
+        user.setPatronymic("Test");
+        user.setEmail("statistics-" + UUID.randomUUID() + "@farm.com");
+        user.setPassword("not-used");
+        user.setRole(Role.USER);
+        user.setFired(false);
+        return userRepository.save(user);
+    }
+}